@@ -0,0 +1,109 @@
+package com.library.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${query-executor.pool-size:8}")
+    private int queryPoolSize;
+
+    @Value("${query-executor.queue-capacity:100}")
+    private int queryQueueCapacity;
+
+    @Value("${notifications.pool-size:2}")
+    private int notificationPoolSize;
+
+    @Value("${notifications.queue-capacity:1000}")
+    private int notificationQueueCapacity;
+
+    @Value("${book-import.max-concurrent:2}")
+    private int maxConcurrentImports;
+
+    // 0 means one thread per available core
+    @Value("${password-hashing.pool-size:0}")
+    private int passwordHashPoolSize;
+
+    @Value("${password-hashing.queue-capacity:64}")
+    private int passwordHashQueueCapacity;
+
+    @Value("${password-hashing.login-pool-size:4}")
+    private int loginPoolSize;
+
+    // Dedicated pool for fanned-out read queries so they never compete with Tomcat workers
+    @Bean(name = "queryTaskExecutor")
+    public ThreadPoolTaskExecutor queryTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(queryPoolSize);
+        executor.setMaxPoolSize(queryPoolSize);
+        executor.setQueueCapacity(queryQueueCapacity);
+        executor.setThreadNamePrefix("query-");
+        // Rejected widgets fall back to their default value instead of blocking the request thread
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // Background fan-out of wishlist notifications, kept off the request path
+    @Bean(name = "notificationTaskExecutor")
+    public ThreadPoolTaskExecutor notificationTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(notificationPoolSize);
+        executor.setMaxPoolSize(notificationPoolSize);
+        executor.setQueueCapacity(notificationQueueCapacity);
+        executor.setThreadNamePrefix("notify-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // One writer thread per running catalog import; extra imports are turned away rather than queued
+    @Bean(name = "importTaskExecutor")
+    public ThreadPoolTaskExecutor importTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentImports);
+        executor.setMaxPoolSize(maxConcurrentImports);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("import-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // BCrypt checks for logins; sized to the cores so a login storm cannot occupy Tomcat workers, and
+    // attempts beyond the queue are rejected (503) instead of piling up
+    @Bean(name = "passwordHashTaskExecutor")
+    public ThreadPoolTaskExecutor passwordHashTaskExecutor() {
+        int poolSize = passwordHashPoolSize > 0 ? passwordHashPoolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(passwordHashQueueCapacity);
+        executor.setThreadNamePrefix("bcrypt-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // Token signing and the refresh-token insert after a successful password check, so bcrypt- threads
+    // only hash. Its queue is fed by the bcrypt pool, which already bounds the logins in flight
+    @Bean(name = "loginTaskExecutor")
+    public ThreadPoolTaskExecutor loginTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(loginPoolSize);
+        executor.setMaxPoolSize(loginPoolSize);
+        executor.setThreadNamePrefix("login-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,103 @@
+package com.library.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stand-in for replication in the local H2 replica profile. The first tick clones the primary's schema
+ * into the replica database; every tick then copies all rows across in one replica transaction, so
+ * readers of the replica see either the previous copy or the new one. The replica therefore lags the
+ * primary by up to one interval, and stopping the copy (or making it slower than replica.max-lag-ms)
+ * exercises the lag fallback. Not meant for anything but development databases.
+ */
+public class H2ReplicationSimulator {
+
+    private static final Logger log = LoggerFactory.getLogger(H2ReplicationSimulator.class);
+
+    private static final String HEARTBEAT_TABLE = "REPLICATION_HEARTBEAT";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final TransactionTemplate replicaTx;
+
+    private boolean schemaCopied;
+
+    // replica must be a writable connection to the replica database, not the read-only replica pool
+    public H2ReplicationSimulator(DataSource primary, DataSource replica) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.replicaTx = new TransactionTemplate(new DataSourceTransactionManager(replica));
+    }
+
+    @Scheduled(fixedDelayString = "${replica.simulated-replication.interval-ms:1000}")
+    public void replicate() {
+        try {
+            if (!schemaCopied) {
+                copySchema();
+                schemaCopied = true;
+            }
+            copyRows();
+        } catch (RuntimeException e) {
+            log.warn("Simulated replication failed: {}", e.getMessage());
+        }
+    }
+
+    private void copySchema() {
+        for (String statement : primary.queryForList("SCRIPT NODATA NOSETTINGS", String.class)) {
+            // Row-count comments and the primary's own user are not part of the schema
+            if (!statement.startsWith("--") && !statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+        // Rows are copied table by table, so foreign keys cannot be satisfied in between
+        replica.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        log.info("Cloned primary schema into the replica database");
+    }
+
+    private void copyRows() {
+        List<String> tables = new ArrayList<>(primary.queryForList(
+                "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'",
+                String.class));
+        // Heartbeat first, so the lag it reports is never smaller than the age of the copied rows
+        tables.sort((a, b) -> Boolean.compare(!HEARTBEAT_TABLE.equals(a), !HEARTBEAT_TABLE.equals(b)));
+
+        List<TableRows> copies = new ArrayList<>(tables.size());
+        for (String table : tables) {
+            copies.add(readRows(table));
+        }
+        replicaTx.executeWithoutResult(status -> copies.forEach(copy -> {
+            replica.update("DELETE FROM \"" + copy.table + "\"");
+            if (!copy.rows.isEmpty()) {
+                replica.batchUpdate(copy.insert, copy.rows);
+            }
+        }));
+    }
+
+    private TableRows readRows(String table) {
+        return primary.query("SELECT * FROM \"" + table + "\"", (ResultSetExtractor<TableRows>) resultSet -> {
+            int count = resultSet.getMetaData().getColumnCount();
+            List<Object[]> rows = new ArrayList<>();
+            while (resultSet.next()) {
+                Object[] row = new Object[count];
+                for (int i = 0; i < count; i++) {
+                    row[i] = resultSet.getObject(i + 1);
+                }
+                rows.add(row);
+            }
+            String insert = "INSERT INTO \"" + table + "\" VALUES (" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+            return new TableRows(table, insert, rows);
+        });
+    }
+
+    private record TableRows(String table, String insert, List<Object[]> rows) {}
+}
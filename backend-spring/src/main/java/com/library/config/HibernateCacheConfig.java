@@ -0,0 +1,128 @@
+package com.library.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local second-level cache for Hibernate, backed by Caffeine through JCache. Every region is declared
+ * here with its own size bound and time-to-live. Hibernate is set to fail on undeclared regions, so a
+ * new @Cache annotation cannot silently fall back to an unbounded cache. Per-region hit ratios are
+ * published as the hibernate.cache.hit.ratio gauge.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String BOOK_REGION = "library.book";
+    public static final String USER_REGION = "library.user";
+    public static final String BOOK_QUERY_REGION = "library.query.books";
+    public static final String USER_QUERY_REGION = "library.query.users";
+
+    // Hibernate's built-in regions; the timestamps region must never evict or stale query results could be served
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${second-level-cache.books.max-entries:10000}")
+    private long bookEntries;
+
+    @Value("${second-level-cache.books.ttl-seconds:3600}")
+    private long bookTtlSeconds;
+
+    @Value("${second-level-cache.users.max-entries:5000}")
+    private long userEntries;
+
+    @Value("${second-level-cache.users.ttl-seconds:900}")
+    private long userTtlSeconds;
+
+    @Value("${second-level-cache.queries.max-entries:2000}")
+    private long queryEntries;
+
+    @Value("${second-level-cache.queries.ttl-seconds:300}")
+    private long queryTtlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // The provider's default manager is shared JVM-wide; a private one keeps two application
+        // contexts in one JVM (e.g. test contexts) from colliding on region names
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("library-hibernate-" + UUID.randomUUID()), provider.getDefaultClassLoader());
+
+        Map<String, CaffeineConfiguration<Object, Object>> regions = new LinkedHashMap<>();
+        regions.put(BOOK_REGION, region(bookEntries, bookTtlSeconds));
+        regions.put(USER_REGION, region(userEntries, userTtlSeconds));
+        regions.put(BOOK_QUERY_REGION, region(queryEntries, queryTtlSeconds));
+        regions.put(USER_QUERY_REGION, region(queryEntries, queryTtlSeconds));
+        regions.put(QUERY_RESULTS_REGION, region(queryEntries, queryTtlSeconds));
+        regions.put(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        regions.forEach(cacheManager::createCache);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.use_query_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            properties.put("hibernate.generate_statistics", true);
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : new String[]{BOOK_REGION, USER_REGION}) {
+                Gauge.builder("hibernate.cache.hit.ratio", statistics,
+                                stats -> hitRatio(stats.getDomainDataRegionStatistics(region)))
+                        .tag("region", region)
+                        .register(registry);
+            }
+            for (String region : new String[]{BOOK_QUERY_REGION, USER_QUERY_REGION}) {
+                Gauge.builder("hibernate.cache.hit.ratio", statistics,
+                                stats -> hitRatio(stats.getQueryRegionStatistics(region)))
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        if (region == null) {
+            return Double.NaN;
+        }
+        long lookups = region.getHitCount() + region.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) region.getHitCount() / lookups;
+    }
+
+    // Size-bounded (Caffeine's W-TinyLFU eviction) with a time-to-live as a backstop for writes made outside Hibernate
+    private static CaffeineConfiguration<Object, Object> region(long maxEntries, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
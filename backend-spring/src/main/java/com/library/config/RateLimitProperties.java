@@ -0,0 +1,70 @@
+package com.library.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-route token-bucket limits (rate-limit.* in application.yml). The first rule whose pattern and
+ * method match a request applies. A rule can limit per client IP, per authenticated user, or both.
+ * Requests that match no rule are not limited.
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Buckets untouched for this long, and already refilled, are dropped
+    private long idleEvictSeconds = 600;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    public static class Rule {
+        private String name;
+        private String pattern;
+        private List<String> methods = new ArrayList<>();
+        private Limit perIp;
+        private Limit perUser;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getPattern() { return pattern; }
+        public void setPattern(String pattern) { this.pattern = pattern; }
+
+        public List<String> getMethods() { return methods; }
+        public void setMethods(List<String> methods) { this.methods = methods; }
+
+        public Limit getPerIp() { return perIp; }
+        public void setPerIp(Limit perIp) { this.perIp = perIp; }
+
+        public Limit getPerUser() { return perUser; }
+        public void setPerUser(Limit perUser) { this.perUser = perUser; }
+    }
+
+    // Bucket of `capacity` tokens (the allowed burst), refilled continuously at `refill` tokens per `period-seconds`
+    public static class Limit {
+        private int capacity;
+        private int refill;
+        private long periodSeconds = 60;
+
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+
+        public int getRefill() { return refill; }
+        public void setRefill(int refill) { this.refill = refill; }
+
+        public long getPeriodSeconds() { return periodSeconds; }
+        public void setPeriodSeconds(long periodSeconds) { this.periodSeconds = periodSeconds; }
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getIdleEvictSeconds() { return idleEvictSeconds; }
+    public void setIdleEvictSeconds(long idleEvictSeconds) { this.idleEvictSeconds = idleEvictSeconds; }
+
+    public List<Rule> getRules() { return rules; }
+    public void setRules(List<Rule> rules) { this.rules = rules; }
+}
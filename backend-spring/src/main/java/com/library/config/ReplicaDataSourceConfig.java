@@ -0,0 +1,121 @@
+package com.library.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Primary/replica datasource routing, enabled with replica.enabled=true. Services opt in by marking read
+ * paths @Transactional(readOnly = true); controllers and repositories are unaware of the split.
+ * Without the flag the single auto-configured datasource is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Value("${replica.datasource.url}")
+    private String replicaUrl;
+
+    @Value("${replica.datasource.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${replica.datasource.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${replica.datasource.pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${replica.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    // spring.datasource.hikari.* (pool size, timeouts) applies to the primary pool
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setMaximumPoolSize(replicaPoolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, maxLagMs);
+    }
+
+    // Local H2 profile only: keeps the separate replica database filled from the primary
+    @Bean
+    @ConditionalOnProperty(name = "replica.simulated-replication.enabled", havingValue = "true")
+    public H2ReplicationSimulator h2ReplicationSimulator(HikariDataSource primaryDataSource) {
+        return new H2ReplicationSimulator(primaryDataSource,
+                new DriverManagerDataSource(replicaUrl, replicaUsername, replicaPassword));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaLagMonitor);
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.Route.PRIMARY, primaryDataSource,
+                ReplicaRoutingDataSource.Route.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Replaces Spring Boot's JpaTransactionManager: fixes each transaction's route when it begins and
+    // keeps replica reads out of the second-level cache
+    @Bean
+    public PlatformTransactionManager transactionManager(DataSource dataSource,
+                                                         ObjectProvider<TransactionManagerCustomizers> customizers)
+            throws SQLException {
+        JpaTransactionManager transactionManager =
+                new ReplicaJpaTransactionManager(dataSource.unwrap(ReplicaRoutingDataSource.class));
+        customizers.ifAvailable(configured -> configured.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    public MeterBinder replicaLagMetrics(ReplicaLagMonitor replicaLagMonitor) {
+        return registry -> {
+            Gauge.builder("datasource.replica.lag", replicaLagMonitor, ReplicaLagMonitor::getLagMs)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("datasource.replica.usable", replicaLagMonitor, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.library.config;
+
+import com.library.config.ReplicaRoutingDataSource.Route;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE;
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_CACHE_STORE_MODE;
+
+/**
+ * JpaTransactionManager for replica mode. Each transaction is given its route when it begins, and a read-only
+ * transaction that goes to the replica bypasses the second-level entity and query caches (CacheMode.IGNORE).
+ * The replica can trail the primary, and Hibernate stamps a cached query result with the start time of the
+ * transaction that read it, so a replica row read after a primary commit would be cached as fresh until the
+ * region's time-to-live. CacheMode.GET would keep the cache reads, but Hibernate 6.3 still stores a query
+ * result after a GET-mode miss.
+ */
+public class ReplicaJpaTransactionManager extends JpaTransactionManager {
+
+    private final ReplicaRoutingDataSource routing;
+
+    public ReplicaJpaTransactionManager(ReplicaRoutingDataSource routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        Route route = routing.routeFor(definition.isReadOnly());
+        if (route == Route.REPLICA) {
+            // Set as JPA properties rather than Session.setCacheMode: queries copy their cache modes from them
+            currentEntityManager().setProperty(HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+            currentEntityManager().setProperty(HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        }
+        routing.pin(route);
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        Route route = routing.unpin();
+        return new SuspendedRoute(super.doSuspend(transaction), route);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        SuspendedRoute suspended = (SuspendedRoute) suspendedResources;
+        super.doResume(transaction, suspended.resources());
+        if (suspended.route() != null) {
+            routing.pin(suspended.route());
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        // With open-in-view the session outlives the transaction; nothing else changes its cache modes
+        if (routing.unpin() == Route.REPLICA) {
+            currentEntityManager().setProperty(HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.USE);
+            currentEntityManager().setProperty(HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.USE);
+        }
+        super.doCleanupAfterCompletion(transaction);
+    }
+
+    private EntityManager currentEntityManager() {
+        EntityManagerHolder holder =
+                (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        return holder.getEntityManager();
+    }
+
+    private record SuspendedRoute(Object resources, Route route) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.library.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Heartbeat-based replication lag check. Each tick writes the current time to a one-row table on the
+ * primary, then reads it back from the replica. The difference is the replica's lag. While that lag
+ * exceeds the configured limit, or the replica cannot be reached, read-only traffic falls back to the
+ * primary. The heartbeat table is created by migration V10.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+
+    private volatile boolean replicaUsable;
+    private boolean checked;
+    private volatile long lagMs = -1;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMs) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${replica.heartbeat-interval-ms:1000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", now);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not write replication heartbeat: {}", e.getMessage());
+            return;
+        }
+
+        boolean usable;
+        try {
+            Long beat = replica.queryForObject("SELECT MAX(beat_at) FROM replication_heartbeat", Long.class);
+            lagMs = beat != null ? Math.max(0, now - beat) : -1;
+            usable = beat != null && lagMs <= maxLagMs;
+        } catch (RuntimeException e) {
+            lagMs = -1;
+            usable = false;
+        }
+
+        if (!checked || usable != replicaUsable) {
+            if (usable) {
+                log.info("Replica caught up (lag {} ms), routing read-only transactions to it", lagMs);
+            } else {
+                log.warn("Replica unavailable or lagging (lag {} ms, limit {} ms), routing reads to primary", lagMs, maxLagMs);
+            }
+            replicaUsable = usable;
+            checked = true;
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    // Last measured lag in milliseconds, or -1 when the replica could not be read
+    public long getLagMs() {
+        return lagMs;
+    }
+}
@@ -0,0 +1,46 @@
+package com.library.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and everything else to the
+ * primary. When the lag monitor reports the replica as unusable, reads stay on the primary. It must
+ * sit behind a LazyConnectionDataSourceProxy, because the read-only flag is only bound after the
+ * transaction manager has asked for a connection. JPA transactions have their route fixed when they
+ * begin (see ReplicaJpaTransactionManager), so a change in replica lag cannot move one mid-way.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    public Route routeFor(boolean readOnly) {
+        return readOnly && lagMonitor.isReplicaUsable() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    // Binds the route of the transaction starting on this thread; unpin() returns it when it ends or is suspended
+    void pin(Route route) {
+        TransactionSynchronizationManager.bindResource(this, route);
+    }
+
+    Route unpin() {
+        return (Route) TransactionSynchronizationManager.unbindResourceIfPossible(this);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route pinned = (Route) TransactionSynchronizationManager.getResource(this);
+        if (pinned != null) {
+            return pinned;
+        }
+        return routeFor(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+}
@@ -1,8 +1,12 @@
 package com.library.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.library.security.JwtAuthenticationFilter;
+import com.library.security.RateLimitFilter;
+import com.library.security.RateLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -25,6 +29,7 @@ import java.util.List;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
     @Value("#{'${cors.allowed-origins}'.split(',')}")
@@ -68,7 +73,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter,
+                                           RateLimiter rateLimiter, ObjectMapper objectMapper) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
@@ -88,6 +94,7 @@ public class SecurityConfig {
                 
                 // Public book endpoints
                 .requestMatchers(HttpMethod.GET, "/api/books/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/catalog/**").permitAll()
                 
                 // User endpoints (authenticated - both USER and ADMIN can access)
                 .requestMatchers("/api/user/**").hasAnyRole("USER", "ADMIN")
@@ -102,7 +109,9 @@ public class SecurityConfig {
                 // All other requests need authentication
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Not a bean, so it only runs inside this chain (after the principal is known), never as a servlet filter
+            .addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper), JwtAuthenticationFilter.class);
 
         // For H2 Console
         http.headers(headers -> headers.frameOptions().sameOrigin());
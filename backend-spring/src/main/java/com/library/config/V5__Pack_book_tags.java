@@ -0,0 +1,87 @@
+package com.library.config;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Packs each book's book_tags rows into books.tag_ids (4-byte big-endian ids from the tags dictionary
+ * seeded by V4) and then drops book_tags. Written in Java so both vendors share one encoding. Picked up
+ * by Spring Boot's Flyway auto-configuration as a bean.
+ */
+@Component
+public class V5__Pack_book_tags extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V5__Pack_book_tags.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        Map<String, Integer> ids = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id, name FROM tags")) {
+            while (rs.next()) {
+                ids.put(rs.getString(2), rs.getInt(1));
+            }
+        }
+
+        long books = 0;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT book_id, tag FROM book_tags WHERE tag IS NOT NULL ORDER BY book_id, tag");
+             PreparedStatement update = connection.prepareStatement("UPDATE books SET tag_ids = ? WHERE id = ?")) {
+            Long current = null;
+            ByteArrayOutputStream packed = new ByteArrayOutputStream();
+            while (rs.next()) {
+                long bookId = rs.getLong(1);
+                if (current != null && current != bookId) {
+                    addUpdate(update, current, packed);
+                    if (++books % BATCH_SIZE == 0) {
+                        update.executeBatch();
+                    }
+                }
+                current = bookId;
+                write(packed, ids.get(rs.getString(2)));
+            }
+            if (current != null) {
+                addUpdate(update, current, packed);
+                books++;
+            }
+            update.executeBatch();
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE book_tags");
+        }
+        log.info("Packed tags for {} books into books.tag_ids ({} distinct tags)", books, ids.size());
+    }
+
+    private static void addUpdate(PreparedStatement update, long bookId, ByteArrayOutputStream packed) throws SQLException {
+        update.setBytes(1, packed.toByteArray());
+        update.setLong(2, bookId);
+        update.addBatch();
+        packed.reset();
+    }
+
+    // Same layout as ByteBuffer.putInt, which TagDictionary decodes with
+    private static void write(ByteArrayOutputStream packed, int id) {
+        packed.write(id >>> 24);
+        packed.write(id >>> 16);
+        packed.write(id >>> 8);
+        packed.write(id);
+    }
+}
@@ -3,27 +3,37 @@ package com.library.controller;
 import com.library.dto.ApiResponse;
 import com.library.dto.PaginationResponse;
 import com.library.entity.Book;
-import com.library.entity.BorrowRecord;
 import com.library.entity.User;
 import com.library.repository.UserRepository;
+import com.library.service.BookImportService;
+import com.library.service.BorrowArchiveService;
 import com.library.service.BookService;
 import com.library.service.BorrowRecordService;
+import com.library.service.ExportService;
+import com.library.service.ParallelQueryExecutor;
 import com.library.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -42,74 +52,39 @@ public class AdminController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ParallelQueryExecutor parallelQueryExecutor;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private BorrowArchiveService borrowArchiveService;
+
     // Dashboard endpoints
     @GetMapping("/dashboard/stats")
     public ResponseEntity<ApiResponse<Object>> getDashboardStats() {
-        long totalBooks = bookService.getTotalBookCount();
-        long totalUsers = userService.getTotalUserCount();
-        long activeBorrowings = borrowRecordService.getActiveBorrowingsCount();
-        long overdueBorrowings = borrowRecordService.getOverdueBorrowingsCount();
-        BigDecimal totalFines = borrowRecordService.getTotalFines();
-        
-        Page<BorrowRecord> recentBorrows = borrowRecordService.getRecentBorrows(PageRequest.of(0, 10));
-        List<Map<String, Object>> popularBooks = borrowRecordService.getPopularBooks();
-
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalBooks", totalBooks);
-        stats.put("totalUsers", totalUsers);
-        stats.put("activeBorrowings", activeBorrowings);
-        stats.put("overdueBorrowings", overdueBorrowings);
-        stats.put("totalFines", totalFines);
-        stats.put("recentBorrows", recentBorrows.getContent());
-        stats.put("popularBooks", popularBooks);
-
-        ApiResponse<Object> response = new ApiResponse<>(true, null, null);
-        // Set stats directly on response to match Node.js format
-        stats.forEach((key, value) -> {
-            switch (key) {
-                case "totalBooks" -> response.setData(Map.of("totalBooks", value));
-                case "totalUsers" -> {
-                    Map<String, Object> data = response.getData() != null ? 
-                        new HashMap<>((Map<String, Object>) response.getData()) : new HashMap<>();
-                    data.put("totalUsers", value);
-                    response.setData(data);
-                }
-                case "activeBorrowings" -> {
-                    Map<String, Object> data = response.getData() != null ? 
-                        new HashMap<>((Map<String, Object>) response.getData()) : new HashMap<>();
-                    data.put("activeBorrowings", value);
-                    response.setData(data);
-                }
-                case "overdueBorrowings" -> {
-                    Map<String, Object> data = response.getData() != null ? 
-                        new HashMap<>((Map<String, Object>) response.getData()) : new HashMap<>();
-                    data.put("overdueBorrowings", value);
-                    response.setData(data);
-                }
-                case "totalFines" -> {
-                    Map<String, Object> data = response.getData() != null ? 
-                        new HashMap<>((Map<String, Object>) response.getData()) : new HashMap<>();
-                    data.put("totalFines", value);
-                    response.setData(data);
-                }
-                case "recentBorrows" -> {
-                    Map<String, Object> data = response.getData() != null ? 
-                        new HashMap<>((Map<String, Object>) response.getData()) : new HashMap<>();
-                    data.put("recentBorrows", value);
-                    response.setData(data);
-                }
-                case "popularBooks" -> {
-                    Map<String, Object> data = response.getData() != null ? 
-                        new HashMap<>((Map<String, Object>) response.getData()) : new HashMap<>();
-                    data.put("popularBooks", value);
-                    response.setData(data);
-                }
-            }
-        });
-        
-        // Simpler approach - just return all stats
-        response.setData(stats);
-        response.setSuccess(true);
+        // Widgets are independent, so they run concurrently and latency tracks the slowest one
+        ParallelQueryExecutor.Results results = parallelQueryExecutor.batch()
+                .add("totalBooks", bookService::getTotalBookCount, 0L)
+                .add("totalUsers", userService::getTotalUserCount, 0L)
+                .add("activeBorrowings", borrowRecordService::getActiveBorrowingsCount, 0L)
+                .add("overdueBorrowings", borrowRecordService::getOverdueBorrowingsCount, 0L)
+                .add("totalFines", borrowRecordService::getTotalFines, BigDecimal.ZERO)
+                .add("recentBorrows", () -> borrowRecordService.getRecentBorrows(10), List.of())
+                .add("popularBooks", borrowRecordService::getPopularBooks, List.of())
+                .execute();
+
+        Map<String, Object> stats = new HashMap<>(results.getValues());
+        stats.put("timings", results.getTimings());
+        if (results.isPartial()) {
+            stats.put("partial", results.getDegraded());
+        }
+
+        ApiResponse<Object> response = ApiResponse.success(null, stats);
 
         return ResponseEntity.ok(response);
     }
@@ -178,6 +153,90 @@ public class AdminController {
         }
     }
 
+    // Body is read straight from the request stream (CSV with a header row, or one JSON book per line)
+    @PostMapping("/books/import")
+    public ResponseEntity<ApiResponse<Object>> importBooks(
+            @RequestParam(required = false) String format,
+            HttpServletRequest request) {
+        try {
+            BookImportService.Format importFormat = BookImportService.Format.resolve(format, request.getContentType());
+            BookImportService.ImportJob job = bookImportService.importBooks(request.getInputStream(), importFormat);
+
+            ApiResponse<Object> response = job.getStatus() == BookImportService.ImportJob.Status.COMPLETED
+                    ? ApiResponse.success("Import completed")
+                    : ApiResponse.error("Import failed");
+            response.setData(Map.of("import", job));
+
+            return ResponseEntity.ok(response);
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Too many imports in progress, please retry later"));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/books/import")
+    public ResponseEntity<ApiResponse<Object>> getImports() {
+        return ResponseEntity.ok(ApiResponse.success(null, Map.of("imports", bookImportService.getRecentJobs())));
+    }
+
+    // Export endpoints: rows are written to the response as they come off the cursor
+    @GetMapping("/export/books")
+    public ResponseEntity<ApiResponse<Object>> exportBooks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        return export("books", format, gzip, response);
+    }
+
+    @GetMapping("/export/borrows")
+    public ResponseEntity<ApiResponse<Object>> exportBorrows(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        return export("borrows", format, gzip, response);
+    }
+
+    private ResponseEntity<ApiResponse<Object>> export(String name, String format, boolean gzip,
+                                                       HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.resolve(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+
+        String filename = name + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            out = new GZIPOutputStream(out, 64 * 1024);
+        }
+
+        if ("books".equals(name)) {
+            exportService.exportBooks(exportFormat, out);
+        } else {
+            exportService.exportBorrows(exportFormat, out);
+        }
+        // The body has already been written; a null entity tells Spring the response is handled
+        return null;
+    }
+
+    // Runs the borrow record archiver now instead of waiting for its nightly schedule
+    @PostMapping("/archive/borrows")
+    public ResponseEntity<ApiResponse<Object>> archiveBorrows(
+            @RequestParam(defaultValue = "365") int olderThanDays) {
+        long moved = borrowArchiveService.archive(olderThanDays);
+        if (moved < 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error("Archival is already running"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Archival completed", Map.of("archived", moved)));
+    }
+
     // User management endpoints
     @GetMapping("/users")
     public ResponseEntity<ApiResponse<Object>> getAllUsers(
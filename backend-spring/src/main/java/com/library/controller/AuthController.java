@@ -4,20 +4,28 @@ import com.library.dto.ApiResponse;
 import com.library.dto.AuthRequest;
 import com.library.dto.RegisterRequest;
 import com.library.entity.User;
+import com.library.security.AccessTokenRevocations;
 import com.library.security.JwtTokenProvider;
+import com.library.service.LoginService;
 import com.library.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -30,23 +38,27 @@ public class AuthController {
     }
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginService loginService;
 
     @Autowired
     private UserService userService;
 
     @Autowired
     private JwtTokenProvider tokenProvider;
-    
+
+    @Autowired
+    private AccessTokenRevocations accessTokenRevocations;
+
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    @Qualifier("loginTaskExecutor")
+    private Executor loginTaskExecutor;
 
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<Object>> register(@Valid @RequestBody RegisterRequest request) {
         try {
             User user = userService.createUser(request.getName(), request.getEmail(), request.getPassword());
             
-            String accessToken = tokenProvider.generateAccessToken(user.getEmail());
+            String accessToken = tokenProvider.generateAccessToken(user);
             String refreshToken = tokenProvider.generateRefreshToken(user.getEmail());
             
             userService.addRefreshToken(user, refreshToken);
@@ -63,76 +75,51 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<Object>> login(@RequestBody AuthRequest request) {
-        System.out.println("🚀 LOGIN ENDPOINT REACHED!");
-        System.out.println("🚀 Request received: " + request);
-        
+    public CompletableFuture<ResponseEntity<ApiResponse<Object>>> login(@RequestBody AuthRequest request) {
         if (request == null) {
-            System.out.println("❌ Request is null!");
-            return ResponseEntity.badRequest().body(ApiResponse.error("Request is null"));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(ApiResponse.error("Request is null")));
         }
         
         if (request.getEmail() == null) {
-            System.out.println("❌ Email is null!");
-            return ResponseEntity.badRequest().body(ApiResponse.error("Email is required"));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(ApiResponse.error("Email is required")));
         }
         
         if (request.getPassword() == null) {
-            System.out.println("❌ Password is null!");
-            return ResponseEntity.badRequest().body(ApiResponse.error("Password is required"));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(ApiResponse.error("Password is required")));
         }
+
+        // The password is checked once, on the hashing pool; this thread goes back to Tomcat meanwhile.
+        // Issuing the tokens then moves to the login pool so bcrypt- threads are free for the next check
+        CompletableFuture<User> authenticated;
         try {
-            System.out.println("=== LOGIN ATTEMPT ===");
-            System.out.println("Email: " + request.getEmail());
-            System.out.println("Password length: " + request.getPassword().length());
-            
-            // Check if user exists first
-            User user = userService.findByEmail(request.getEmail()).orElse(null);
-            if (user == null) {
-                System.out.println("❌ User not found: " + request.getEmail());
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(ApiResponse.error("User not found"));
-            }
-            
-            System.out.println("✅ User found: " + user.getEmail());
-            System.out.println("✅ User active: " + user.getIsActive());
-            System.out.println("✅ User role: " + user.getRole());
-            System.out.println("✅ Stored password hash: " + user.getPassword().substring(0, 20) + "...");
-            
-            // Test password encoding
-            boolean passwordMatches = passwordEncoder.matches(request.getPassword(), user.getPassword());
-            System.out.println("✅ Password matches: " + passwordMatches);
-            
-            if (!passwordMatches) {
-                System.out.println("❌ Password does not match!");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(ApiResponse.error("Invalid password"));
-            }
-            
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-            );
+            authenticated = loginService.authenticate(request.getEmail(), request.getPassword());
+        } catch (UsernameNotFoundException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error(e.getMessage())));
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.error("Too many login attempts in progress, please retry shortly")));
+        }
 
-            User authenticatedUser = (User) authentication.getPrincipal();
-            
-            String accessToken = tokenProvider.generateAccessToken(authenticatedUser.getEmail());
-            String refreshToken = tokenProvider.generateRefreshToken(authenticatedUser.getEmail());
+        return authenticated.thenApplyAsync(user -> {
+            String accessToken = tokenProvider.generateAccessToken(user);
+            String refreshToken = tokenProvider.generateRefreshToken(user.getEmail());
             
-            userService.addRefreshToken(authenticatedUser, refreshToken);
+            userService.addRefreshToken(user, refreshToken);
             
             ApiResponse<Object> response = ApiResponse.success("Login successful");
             response.setAccessToken(accessToken);
             response.setRefreshToken(refreshToken);
-            response.setUser(authenticatedUser);
-            
-            System.out.println("✅ Login successful for: " + authenticatedUser.getEmail());
+            response.setUser(user);
             return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            System.out.println("❌ Login failed: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(ApiResponse.error("Invalid email or password: " + e.getMessage()));
-        }
+        }, loginTaskExecutor).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            String message = cause instanceof BadCredentialsException
+                    ? cause.getMessage()
+                    : "Invalid email or password: " + cause.getMessage();
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error(message));
+        });
     }
 
     @PostMapping("/refresh")
@@ -144,12 +131,13 @@ public class AuthController {
         }
 
         try {
-            if (!tokenProvider.validateRefreshToken(refreshToken)) {
+            Claims claims = tokenProvider.verifyRefreshToken(refreshToken);
+            if (claims == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(ApiResponse.error("Invalid refresh token"));
             }
 
-            String email = tokenProvider.getEmailFromRefreshToken(refreshToken);
+            String email = claims.getSubject();
             User user = userService.findByEmail(email)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -158,7 +146,7 @@ public class AuthController {
                         .body(ApiResponse.error("Invalid refresh token"));
             }
 
-            String newAccessToken = tokenProvider.generateAccessToken(user.getEmail());
+            String newAccessToken = tokenProvider.generateAccessToken(user);
             
             ApiResponse<Object> response = ApiResponse.success("Token refreshed successfully");
             response.setAccessToken(newAccessToken);
@@ -172,12 +160,21 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<ApiResponse<Object>> logout(@RequestBody(required = false) Map<String, String> request) {
+    public ResponseEntity<ApiResponse<Object>> logout(@RequestBody(required = false) Map<String, String> request,
+                                                      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             if (authentication != null && authentication.getPrincipal() instanceof User) {
                 User user = (User) authentication.getPrincipal();
                 
+                // The access token used for this call stops working now rather than at its expiry
+                if (authorization != null && authorization.startsWith("Bearer ")) {
+                    Claims claims = tokenProvider.verifyAccessToken(authorization.substring(7));
+                    if (claims != null) {
+                        accessTokenRevocations.revoke(claims, user.getId());
+                    }
+                }
+                
                 if (request != null && request.containsKey("refreshToken")) {
                     userService.removeRefreshToken(user, request.get("refreshToken"));
                 } else {
@@ -195,7 +192,8 @@ public class AuthController {
     public ResponseEntity<ApiResponse<User>> getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof User) {
-            User user = (User) authentication.getPrincipal();
+            User principal = (User) authentication.getPrincipal();
+            User user = userService.findById(principal.getId()).orElse(principal);
             ApiResponse<User> response = ApiResponse.success("User retrieved successfully");
             response.setUser(user);
             return ResponseEntity.ok(response);
@@ -1,21 +1,36 @@
 package com.library.controller;
 
 import com.library.dto.ApiResponse;
+import com.library.dto.BookDetail;
+import com.library.dto.BookListData;
+import com.library.dto.BookSummary;
+import com.library.dto.BorrowRecordView;
+import com.library.dto.BorrowResult;
+import com.library.dto.FieldSelection;
 import com.library.dto.PaginationResponse;
 import com.library.entity.Book;
 import com.library.entity.BorrowRecord;
 import com.library.entity.User;
 import com.library.service.BookService;
+import com.library.service.CatalogPageCache;
+import com.library.service.CatalogVersion;
+import com.library.service.RecommendationService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -25,19 +40,67 @@ public class BookController {
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private CatalogPageCache catalogPageCache;
+
     @GetMapping
-    public ResponseEntity<ApiResponse<Object>> getAllBooks(
+    public ResponseEntity<ApiResponse<BookListData>> getAllBooks(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "12") int limit,
             @RequestParam(required = false) String genre,
             @RequestParam(required = false) Integer publishedYear,
             @RequestParam(defaultValue = "title") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortOrder) {
+            @RequestParam(defaultValue = "asc") String sortOrder,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest,
+            HttpServletResponse servletResponse) throws IOException {
 
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(fields, BookSummary.LIST_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+
+        // Validators are taken before the query, so a concurrent change can only make them older than the data
+        CatalogVersion.Stamp stamp = catalogVersion.catalog();
+        if (webRequest.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return null;
+        }
+
+        // The cache key and the query get the same filter, so a page is only ever stored under what it shows
+        String genreFilter = genreFilter(genre);
+        if (catalogPageCache.isCacheable(page, limit)) {
+            CatalogPageCache.Key key = CatalogPageCache.Key.of(stamp.etag(), page, limit, genreFilter, publishedYear,
+                    sortBy, sortOrder, selection);
+            CatalogPageCache.Entry entry = catalogPageCache.get(key,
+                    () -> bookPage(page, limit, genreFilter, publishedYear, sortBy, sortOrder, selection));
+            writeCached(entry, webRequest, servletResponse);
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(bookPage(page, limit, genreFilter, publishedYear, sortBy, sortOrder, selection));
+    }
+
+    // A blank ?genre= means no genre filter; surrounding spaces are not part of the name
+    private static String genreFilter(String genre) {
+        return genre == null || genre.isBlank() ? null : genre.trim();
+    }
+
+    private ApiResponse<BookListData> bookPage(int page, int limit, String genre, Integer publishedYear,
+                                               String sortBy, String sortOrder, FieldSelection fields) {
         Sort.Direction direction = sortOrder.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page - 1, limit, Sort.by(direction, sortBy));
 
-        Page<Book> booksPage = bookService.getAllBooks(genre, publishedYear, pageable);
+        Page<BookSummary> booksPage = bookService.getBookSummaries(genre, publishedYear, fields, pageable);
         
         PaginationResponse pagination = new PaginationResponse(
             page, 
@@ -46,15 +109,43 @@ public class BookController {
             limit
         );
 
-        ApiResponse<Object> response = ApiResponse.success("Books retrieved successfully");
-        response.setData(Map.of("books", booksPage.getContent()));
+        ApiResponse<BookListData> response = ApiResponse.success("Books retrieved successfully");
+        response.setData(new BookListData(booksPage.getContent()));
         response.setPagination(pagination);
+        return response;
+    }
 
-        return ResponseEntity.ok(response);
+    // Copies the pre-serialized bytes to the servlet stream; ETag and Last-Modified were set by checkNotModified
+    private static void writeCached(CatalogPageCache.Entry entry, WebRequest webRequest,
+                                    HttpServletResponse servletResponse) throws IOException {
+        boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] body = gzip ? entry.gzip() : entry.json();
+        servletResponse.setStatus(HttpServletResponse.SC_OK);
+        servletResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        servletResponse.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            servletResponse.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        servletResponse.setContentLength(body.length);
+        servletResponse.getOutputStream().write(body);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<Object>> searchBooks(
+    public ResponseEntity<ApiResponse<BookListData>> searchBooks(
             @RequestParam String q,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "12") int limit,
@@ -64,12 +155,27 @@ public class BookController {
             @RequestParam(required = false) Integer yearTo,
             @RequestParam(required = false) Boolean available,
             @RequestParam(defaultValue = "title") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortOrder) {
+            @RequestParam(defaultValue = "asc") String sortOrder,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(fields, BookSummary.LIST_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+
+        CatalogVersion.Stamp stamp = catalogVersion.catalog();
+        if (webRequest.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return null;
+        }
 
         Sort.Direction direction = sortOrder.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page - 1, limit, Sort.by(direction, sortBy));
 
-        Page<Book> booksPage = bookService.searchBooks(q, genre, author, yearFrom, yearTo, available, pageable);
+        Page<BookSummary> booksPage = bookService.searchBookSummaries(q, genreFilter(genre), author, yearFrom, yearTo,
+                available, selection, pageable);
 
         PaginationResponse pagination = new PaginationResponse(
             page,
@@ -78,36 +184,58 @@ public class BookController {
             limit
         );
 
-        Map<String, Object> responseData = new HashMap<>();
-        responseData.put("books", booksPage.getContent());
-        responseData.put("searchQuery", q);
-
-        ApiResponse<Object> response = ApiResponse.success("Search completed successfully");
-        response.setData(responseData);
+        ApiResponse<BookListData> response = ApiResponse.success("Search completed successfully");
+        response.setData(new BookListData(booksPage.getContent(), q));
         response.setPagination(pagination);
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Object>> getBookById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<BookDetail>> getBookById(@PathVariable Long id, WebRequest webRequest) {
+        // A remembered ETag lets a revalidation be answered without loading the book
+        CatalogVersion.Stamp known = catalogVersion.knownBook(id);
+        if (known != null && webRequest.checkNotModified(known.etag())) {
+            return null;
+        }
+
+        long changes = catalogVersion.changes();
         return bookService.getBookById(id)
                 .map(book -> {
-                    ApiResponse<Object> response = ApiResponse.success("Book retrieved successfully");
-                    response.setData(book);
-                    return ResponseEntity.ok(response);
+                    CatalogVersion.Stamp stamp = catalogVersion.book(book, changes);
+                    ApiResponse<BookDetail> response = ApiResponse.success("Book retrieved successfully");
+                    response.setData(BookDetail.of(book));
+                    // Spring answers 304 from these validators if the client already holds this version
+                    return ResponseEntity.ok()
+                            .eTag(stamp.etag())
+                            .lastModified(stamp.lastModified())
+                            .cacheControl(CacheControl.noCache())
+                            .body(response);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/also-borrowed")
+    public ResponseEntity<ApiResponse<Object>> getAlsoBorrowed(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        List<Map<String, Object>> recommendations = recommendationService.getAlsoBorrowed(id, limit);
+
+        ApiResponse<Object> response = ApiResponse.success("Recommendations retrieved successfully");
+        response.setData(Map.of("recommendations", recommendations, "count", recommendations.size()));
+
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/{id}/borrow")
-    public ResponseEntity<ApiResponse<Object>> borrowBook(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<ApiResponse<BorrowResult>> borrowBook(@PathVariable Long id, Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
             BorrowRecord borrowRecord = bookService.borrowBook(id, user);
             
-            ApiResponse<Object> response = ApiResponse.success("Book borrowed successfully");
-            response.setData(Map.of("borrowRecord", borrowRecord));
+            ApiResponse<BorrowResult> response = ApiResponse.success("Book borrowed successfully");
+            response.setData(new BorrowResult(BorrowRecordView.of(borrowRecord)));
             
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
@@ -125,7 +253,7 @@ public class BookController {
                     .orElseThrow(() -> new RuntimeException("Book not found"));
             
             ApiResponse<Object> response = ApiResponse.success(message);
-            response.setData(Map.of("book", book));
+            response.setData(Map.of("book", BookDetail.of(book)));
             
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
@@ -134,13 +262,13 @@ public class BookController {
     }
 
     @PostMapping("/{id}/return")
-    public ResponseEntity<ApiResponse<Object>> returnBook(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<ApiResponse<BorrowResult>> returnBook(@PathVariable Long id, Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
             BorrowRecord borrowRecord = bookService.returnBook(id, user);
             
-            ApiResponse<Object> response = ApiResponse.success("Book returned successfully");
-            response.setData(Map.of("borrowRecord", borrowRecord));
+            ApiResponse<BorrowResult> response = ApiResponse.success("Book returned successfully");
+            response.setData(new BorrowResult(BorrowRecordView.of(borrowRecord)));
             
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
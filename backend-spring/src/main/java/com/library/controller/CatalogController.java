@@ -0,0 +1,208 @@
+package com.library.controller;
+
+import com.library.dto.ApiResponse;
+import com.library.dto.BookDetail;
+import com.library.service.CatalogSnapshot;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Read-only catalog API served from the in-memory CatalogSnapshot. Listings and search results are
+ * streamed as NDJSON (one book summary per line) with servlet non-blocking I/O: the request thread
+ * starts the stream and returns, and further lines are written only when the connection can take
+ * them, so a slow client holds a socket buffer rather than a servlet thread. Totals are sent in the
+ * X-Total-Count and X-Total-Pages headers. /api/books keeps serving the enveloped JSON the frontend uses.
+ */
+@RestController
+@RequestMapping("/api/catalog")
+@ConditionalOnProperty(name = "catalog-snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogController {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogController.class);
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Value("${catalog-snapshot.max-limit:1000}")
+    private int maxLimit;
+
+    @Value("${catalog-snapshot.stream-timeout-ms:30000}")
+    private long streamTimeoutMs;
+
+    @GetMapping("/books")
+    public ResponseEntity<ApiResponse<Object>> streamBooks(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "12") int limit,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) Integer publishedYear,
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortOrder,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+
+        CatalogSnapshot.SortKey sortKey;
+        try {
+            sortKey = resolve(page, limit, sortBy);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+
+        CatalogSnapshot.Contents contents = catalogSnapshot.current();
+        if (new ServletWebRequest(request, response).checkNotModified(contents.version().etag(), contents.version().lastModified())) {
+            return null;
+        }
+        CatalogSnapshot.Selection selection = contents.browse(genre, publishedYear, sortKey,
+                "desc".equalsIgnoreCase(sortOrder), page, limit);
+        stream(selection, limit, request, response);
+        return null;
+    }
+
+    @GetMapping("/books/search")
+    public ResponseEntity<ApiResponse<Object>> streamSearch(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "12") int limit,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortOrder,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+
+        CatalogSnapshot.SortKey sortKey;
+        try {
+            sortKey = resolve(page, limit, sortBy);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+
+        CatalogSnapshot.Contents contents = catalogSnapshot.current();
+        if (new ServletWebRequest(request, response).checkNotModified(contents.version().etag(), contents.version().lastModified())) {
+            return null;
+        }
+        CatalogSnapshot.Selection selection = contents.search(q, genre, author, yearFrom, yearTo, available, sortKey,
+                "desc".equalsIgnoreCase(sortOrder), page, limit);
+        stream(selection, limit, request, response);
+        return null;
+    }
+
+    @GetMapping("/books/{id}")
+    public ResponseEntity<ApiResponse<BookDetail>> getBook(@PathVariable Long id, HttpServletRequest request,
+                                                           HttpServletResponse response) {
+        CatalogSnapshot.Entry entry = catalogSnapshot.current().book(id);
+        if (entry == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(entry.stamp().etag(), entry.stamp().lastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.success("Book retrieved successfully", entry.detail()));
+    }
+
+    private CatalogSnapshot.SortKey resolve(int page, int limit, String sortBy) {
+        if (page < 1) {
+            throw new IllegalArgumentException("Page must be at least 1");
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit);
+        }
+        return CatalogSnapshot.SortKey.resolve(sortBy);
+    }
+
+    // Headers go out with the first write; the body is handed to the container and this thread returns
+    private void stream(CatalogSnapshot.Selection selection, int limit, HttpServletRequest request,
+                        HttpServletResponse response) {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        response.setHeader("X-Total-Count", Long.toString(selection.total()));
+        response.setHeader("X-Total-Pages", Long.toString((selection.total() + limit - 1) / limit));
+
+        AsyncContext async = request.startAsync();
+        async.setTimeout(streamTimeoutMs);
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                log.debug("Catalog stream timed out after {} ms", streamTimeoutMs);
+                event.getAsyncContext().complete();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                event.getAsyncContext().complete();
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        try {
+            ServletOutputStream out = response.getOutputStream();
+            out.setWriteListener(new LineWriter(selection.entries(), out, async));
+        } catch (IOException e) {
+            async.complete();
+        }
+    }
+
+    // Writes one pre-serialized line per callback while the connection is ready, then waits to be called again
+    private static final class LineWriter implements WriteListener {
+
+        private final Iterator<CatalogSnapshot.Entry> lines;
+        private final ServletOutputStream out;
+        private final AsyncContext async;
+
+        LineWriter(List<CatalogSnapshot.Entry> entries, ServletOutputStream out, AsyncContext async) {
+            this.lines = entries.iterator();
+            this.out = out;
+            this.async = async;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (out.isReady()) {
+                if (!lines.hasNext()) {
+                    async.complete();
+                    return;
+                }
+                out.write(lines.next().summaryLine());
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            // Usually the client went away mid-stream
+            log.debug("Catalog stream aborted: {}", error.toString());
+            async.complete();
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.library.controller;
 
 import com.library.dto.ApiResponse;
+import com.library.dto.BorrowRecordView;
+import com.library.dto.BorrowResult;
+import com.library.dto.FieldSelection;
 import com.library.dto.PaginationResponse;
 import com.library.entity.BorrowRecord;
+import com.library.entity.Notification;
 import com.library.entity.User;
 import com.library.service.BorrowRecordService;
 import com.library.service.UserService;
+import com.library.service.WishlistNotificationService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -29,9 +34,14 @@ public class UserController {
     @Autowired
     private BorrowRecordService borrowRecordService;
 
+    @Autowired
+    private WishlistNotificationService wishlistNotificationService;
+
     @GetMapping("/profile")
     public ResponseEntity<ApiResponse<Object>> getProfile(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        User principal = (User) authentication.getPrincipal();
+        // Claims-only principals carry no profile fields; the stored user is normally an L2 cache hit
+        User user = userService.findById(principal.getId()).orElse(principal);
         
         // Create response data matching Node.js format
         Map<String, Object> userData = new HashMap<>();
@@ -77,10 +87,18 @@ public class UserController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int limit,
             @RequestParam(required = false) String status,
+            @RequestParam(required = false) String fields,
             Authentication authentication) {
 
         User user = (User) authentication.getPrincipal();
         Pageable pageable = PageRequest.of(page - 1, limit);
+
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(fields, BorrowRecordView.FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
         
         BorrowRecord.Status statusEnum = null;
         if (status != null) {
@@ -91,7 +109,7 @@ public class UserController {
             }
         }
 
-        Page<BorrowRecord> historyPage = borrowRecordService.getUserBorrowHistory(user, statusEnum, pageable);
+        Page<BorrowRecordView> historyPage = borrowRecordService.getUserBorrowHistory(user, statusEnum, pageable);
         
         PaginationResponse pagination = new PaginationResponse(
             page, 
@@ -101,7 +119,7 @@ public class UserController {
         );
 
         ApiResponse<Object> response = ApiResponse.success("Borrow history retrieved successfully");
-        response.setData(historyPage.getContent());
+        response.setData(historyPage.getContent().stream().map(record -> record.withFields(selection)).toList());
         response.setPagination(pagination);
 
         return ResponseEntity.ok(response);
@@ -110,7 +128,7 @@ public class UserController {
     @GetMapping("/active-borrows")
     public ResponseEntity<ApiResponse<Object>> getActiveBorrows(Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        List<BorrowRecord> activeBorrows = borrowRecordService.getUserActiveBorrows(user);
+        List<BorrowRecordView> activeBorrows = borrowRecordService.getUserActiveBorrows(user);
         
         ApiResponse<Object> response = ApiResponse.success("Active borrows retrieved successfully");
         response.setData(Map.of(
@@ -122,13 +140,13 @@ public class UserController {
     }
 
     @PostMapping("/renew/{borrowId}")
-    public ResponseEntity<ApiResponse<Object>> renewBook(@PathVariable Long borrowId, Authentication authentication) {
+    public ResponseEntity<ApiResponse<BorrowResult>> renewBook(@PathVariable Long borrowId, Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
             BorrowRecord borrowRecord = borrowRecordService.renewBook(borrowId, user);
             
-            ApiResponse<Object> response = ApiResponse.success("Book renewed successfully");
-            response.setData(Map.of("borrowRecord", borrowRecord));
+            ApiResponse<BorrowResult> response = ApiResponse.success("Book renewed successfully");
+            response.setData(new BorrowResult(BorrowRecordView.of(borrowRecord)));
             
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
@@ -146,4 +164,26 @@ public class UserController {
 
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/notifications")
+    public ResponseEntity<ApiResponse<Object>> getNotifications(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        List<Notification> notifications = wishlistNotificationService.getUnreadNotifications(user);
+
+        ApiResponse<Object> response = ApiResponse.success("Notifications retrieved successfully");
+        response.setData(Map.of("notifications", notifications, "count", notifications.size()));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/notifications/read")
+    public ResponseEntity<ApiResponse<Object>> markNotificationsRead(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        int updated = wishlistNotificationService.markAllRead(user);
+
+        ApiResponse<Object> response = ApiResponse.success("Notifications marked as read");
+        response.setData(Map.of("updated", updated));
+
+        return ResponseEntity.ok(response);
+    }
 }
@@ -1,11 +1,16 @@
 package com.library.controller;
 
 import com.library.dto.ApiResponse;
+import com.library.dto.FieldSelection;
+import com.library.dto.WishlistData;
+import com.library.dto.WishlistEntry;
+import com.library.dto.WishlistView;
 import com.library.entity.Book;
 import com.library.entity.User;
 import com.library.entity.Wishlist;
 import com.library.repository.BookRepository;
 import com.library.repository.WishlistRepository;
+import com.library.service.WishlistNotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -25,18 +30,32 @@ public class WishlistController {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private WishlistNotificationService wishlistNotificationService;
+
     @GetMapping
-    public ResponseEntity<ApiResponse<Object>> getWishlist(Authentication authentication) {
+    public ResponseEntity<ApiResponse<WishlistData>> getWishlist(
+            @RequestParam(required = false) String fields,
+            Authentication authentication) {
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(fields, WishlistView.FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+
         User user = (User) authentication.getPrincipal();
-        List<Wishlist> wishlist = wishlistRepository.findByUserOrderByCreatedAtDesc(user);
+        List<WishlistView> wishlist = wishlistRepository.findViewsByUser(user).stream()
+                .map(entry -> entry.withFields(selection))
+                .toList();
         
-        ApiResponse<Object> response = ApiResponse.success("Wishlist retrieved successfully");
-        response.setData(Map.of("wishlist", wishlist, "count", wishlist.size()));
+        ApiResponse<WishlistData> response = ApiResponse.success("Wishlist retrieved successfully");
+        response.setData(new WishlistData(wishlist));
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/{bookId}")
-    public ResponseEntity<ApiResponse<Object>> addToWishlist(
+    public ResponseEntity<ApiResponse<WishlistEntry>> addToWishlist(
             @PathVariable Long bookId,
             Authentication authentication) {
         try {
@@ -51,9 +70,10 @@ public class WishlistController {
             
             Wishlist wishlist = new Wishlist(user, book);
             wishlistRepository.save(wishlist);
+            wishlistNotificationService.watch(bookId, user.getId());
             
-            ApiResponse<Object> response = ApiResponse.success("Book added to wishlist");
-            response.setData(Map.of("wishlist", wishlist));
+            ApiResponse<WishlistEntry> response = ApiResponse.success("Book added to wishlist");
+            response.setData(new WishlistEntry(WishlistView.of(wishlist)));
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
@@ -73,6 +93,7 @@ public class WishlistController {
             }
             
             wishlistRepository.deleteByUserAndBookId(user, bookId);
+            wishlistNotificationService.unwatch(bookId, user.getId());
             return ResponseEntity.ok(ApiResponse.success("Book removed from wishlist"));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
@@ -0,0 +1,18 @@
+package com.library.dto;
+
+import com.library.entity.Book;
+
+import java.util.Set;
+
+// Single-book payload for the detail page: the card fields plus description, year, shelf location and tags
+public record BookDetail(Long id, String title, String author, String isbn, String genre, Integer publishedYear,
+                         String description, String coverImage, Integer totalCopies, Integer availableCopies,
+                         Integer borrowedCopies, boolean available, Book.Location location, Set<String> tags) {
+
+    public static BookDetail of(Book book) {
+        return new BookDetail(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getGenre(),
+                book.getPublishedYear(), book.getDescription(), book.getCoverImage(), book.getTotalCopies(),
+                book.getAvailableCopies(), book.getBorrowedCopies(), book.isAvailable(), book.getLocation(),
+                book.getTags());
+    }
+}
@@ -0,0 +1,11 @@
+package com.library.dto;
+
+import java.util.List;
+
+// data payload of the catalog list and search endpoints; searchQuery is only set for searches
+public record BookListData(List<BookSummary> books, String searchQuery) {
+
+    public BookListData(List<BookSummary> books) {
+        this(books, null);
+    }
+}
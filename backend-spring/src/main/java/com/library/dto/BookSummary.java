@@ -0,0 +1,192 @@
+package com.library.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.library.entity.Book;
+
+import java.io.IOException;
+import java.util.Set;
+
+// Card-sized view of a book used inside list projections (no tags or audit fields; the catalog listings
+// send publishedYear by default and add description only when ?fields= asks for it)
+@JsonSerialize(using = BookSummary.Serializer.class)
+public class BookSummary {
+    
+    // Selectable through ?fields= wherever a summary is embedded (wishlist, borrow history)
+    public static final Set<String> FIELDS = Set.of("id", "title", "author", "isbn", "genre", "coverImage",
+            "availableCopies", "totalCopies", "available");
+    
+    // Selectable on the catalog list and search endpoints, whose projection can fetch the extra columns
+    public static final Set<String> LIST_FIELDS = Set.of("id", "title", "author", "isbn", "genre", "publishedYear",
+            "description", "coverImage", "availableCopies", "totalCopies", "available");
+    
+    private final Long id;
+    private final String title;
+    private final String author;
+    private final String isbn;
+    private final String genre;
+    private final Integer publishedYear;
+    private final String description;
+    private final String coverImage;
+    private final Integer availableCopies;
+    private final Integer totalCopies;
+    private final FieldSelection fields;
+    
+    public BookSummary(Long id, String title, String author, String isbn, String genre,
+                       String coverImage, Integer availableCopies, Integer totalCopies) {
+        this(id, title, author, isbn, genre, null, null, coverImage, availableCopies, totalCopies, FieldSelection.DEFAULT);
+    }
+    
+    public BookSummary(Long id, String title, String author, String isbn, String genre, Integer publishedYear,
+                       String description, String coverImage, Integer availableCopies, Integer totalCopies,
+                       FieldSelection fields) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.isbn = isbn;
+        this.genre = genre;
+        this.publishedYear = publishedYear;
+        this.description = description;
+        this.coverImage = coverImage;
+        this.availableCopies = availableCopies;
+        this.totalCopies = totalCopies;
+        this.fields = fields;
+    }
+    
+    // A catalog card, as the default listing projection reads it
+    public static BookSummary of(Book book) {
+        return new BookSummary(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getGenre(),
+                book.getPublishedYear(), null, book.getCoverImage(), book.getAvailableCopies(), book.getTotalCopies(),
+                FieldSelection.DEFAULT);
+    }
+    
+    public BookSummary withFields(FieldSelection fields) {
+        return fields.isDefault() ? this : new BookSummary(id, title, author, isbn, genre, publishedYear, description,
+                coverImage, availableCopies, totalCopies, fields);
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public String getAuthor() {
+        return author;
+    }
+    
+    public String getIsbn() {
+        return isbn;
+    }
+    
+    public String getGenre() {
+        return genre;
+    }
+    
+    public Integer getPublishedYear() {
+        return publishedYear;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public String getCoverImage() {
+        return coverImage;
+    }
+    
+    public Integer getAvailableCopies() {
+        return availableCopies;
+    }
+    
+    public Integer getTotalCopies() {
+        return totalCopies;
+    }
+    
+    public boolean isAvailable() {
+        return availableCopies != null && availableCopies > 0;
+    }
+    
+    static final class Serializer extends ViewSerializer<BookSummary> {
+        
+        static final Serializer INSTANCE = new Serializer();
+        
+        private static final SerializedString ID = name("id");
+        private static final SerializedString TITLE = name("title");
+        private static final SerializedString AUTHOR = name("author");
+        private static final SerializedString ISBN = name("isbn");
+        private static final SerializedString GENRE = name("genre");
+        private static final SerializedString PUBLISHED_YEAR = name("publishedYear");
+        private static final SerializedString DESCRIPTION = name("description");
+        private static final SerializedString COVER_IMAGE = name("coverImage");
+        private static final SerializedString AVAILABLE_COPIES = name("availableCopies");
+        private static final SerializedString TOTAL_COPIES = name("totalCopies");
+        private static final SerializedString AVAILABLE = name("available");
+        
+        Serializer() {
+            super(BookSummary.class);
+        }
+        
+        @Override
+        public void serialize(BookSummary book, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(book);
+            if (book.fields.isDefault()) {
+                writeNumber(gen, ID, book.id);
+                writeString(gen, TITLE, book.title);
+                writeString(gen, AUTHOR, book.author);
+                writeString(gen, ISBN, book.isbn);
+                writeString(gen, GENRE, book.genre);
+                writeNumber(gen, PUBLISHED_YEAR, book.publishedYear);
+                writeString(gen, DESCRIPTION, book.description);
+                writeString(gen, COVER_IMAGE, book.coverImage);
+                writeNumber(gen, AVAILABLE_COPIES, book.availableCopies);
+                writeNumber(gen, TOTAL_COPIES, book.totalCopies);
+                gen.writeFieldName(AVAILABLE);
+                gen.writeBoolean(book.isAvailable());
+            } else {
+                writeSelected(book, gen);
+            }
+            gen.writeEndObject();
+        }
+        
+        private static void writeSelected(BookSummary book, JsonGenerator gen) throws IOException {
+            FieldSelection fields = book.fields;
+            writeNumber(gen, ID, book.id);
+            if (fields.includes("title")) {
+                writeString(gen, TITLE, book.title);
+            }
+            if (fields.includes("author")) {
+                writeString(gen, AUTHOR, book.author);
+            }
+            if (fields.includes("isbn")) {
+                writeString(gen, ISBN, book.isbn);
+            }
+            if (fields.includes("genre")) {
+                writeString(gen, GENRE, book.genre);
+            }
+            if (fields.includes("publishedYear")) {
+                writeNumber(gen, PUBLISHED_YEAR, book.publishedYear);
+            }
+            if (fields.includes("description")) {
+                writeString(gen, DESCRIPTION, book.description);
+            }
+            if (fields.includes("coverImage")) {
+                writeString(gen, COVER_IMAGE, book.coverImage);
+            }
+            if (fields.includes("availableCopies")) {
+                writeNumber(gen, AVAILABLE_COPIES, book.availableCopies);
+            }
+            if (fields.includes("totalCopies")) {
+                writeNumber(gen, TOTAL_COPIES, book.totalCopies);
+            }
+            if (fields.includes("available")) {
+                gen.writeFieldName(AVAILABLE);
+                gen.writeBoolean(book.isAvailable());
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.library.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.library.entity.Book;
+import com.library.entity.BorrowRecord;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// Read projection for borrow listings, built directly by JPQL constructor expressions
+@JsonSerialize(using = BorrowRecordView.Serializer.class)
+public class BorrowRecordView {
+    
+    // Selectable through ?fields=; book.<name> narrows the embedded book summary
+    public static final Set<String> FIELDS = FieldSelection.withNested(Set.of("id", "borrowedAt", "dueAt", "returnedAt",
+            "renewedCount", "status", "fineAmount", "finePaid", "book", "user"), "book", BookSummary.FIELDS);
+    
+    private final Long id;
+    private final LocalDateTime borrowedAt;
+    private final LocalDateTime dueAt;
+    private final LocalDateTime returnedAt;
+    private final Integer renewedCount;
+    private final BorrowRecord.Status status;
+    private final BigDecimal fineAmount;
+    private final Boolean finePaid;
+    private final BookSummary book;
+    private final UserSummary user;
+    private final FieldSelection fields;
+    
+    public BorrowRecordView(Long id, LocalDateTime borrowedAt, LocalDateTime dueAt, LocalDateTime returnedAt,
+                            Integer renewedCount, BorrowRecord.Status status, BigDecimal fineAmount, Boolean finePaid,
+                            Long bookId, String title, String author, String isbn, String genre,
+                            String coverImage, Integer availableCopies, Integer totalCopies) {
+        this(id, borrowedAt, dueAt, returnedAt, renewedCount, status, fineAmount, finePaid,
+             bookId, title, author, isbn, genre, coverImage, availableCopies, totalCopies, null, null, null);
+    }
+    
+    public BorrowRecordView(Long id, LocalDateTime borrowedAt, LocalDateTime dueAt, LocalDateTime returnedAt,
+                            Integer renewedCount, BorrowRecord.Status status, BigDecimal fineAmount, Boolean finePaid,
+                            Long bookId, String title, String author, String isbn, String genre,
+                            String coverImage, Integer availableCopies, Integer totalCopies,
+                            Long userId, String userName, String userEmail) {
+        this.id = id;
+        this.borrowedAt = borrowedAt;
+        this.dueAt = dueAt;
+        this.returnedAt = returnedAt;
+        this.renewedCount = renewedCount;
+        this.status = status;
+        this.fineAmount = fineAmount;
+        this.finePaid = finePaid;
+        this.book = new BookSummary(bookId, title, author, isbn, genre, coverImage, availableCopies, totalCopies);
+        this.user = userId != null ? new UserSummary(userId, userName, userEmail) : null;
+        this.fields = FieldSelection.DEFAULT;
+    }
+    
+    private BorrowRecordView(BorrowRecordView source, FieldSelection fields) {
+        this.id = source.id;
+        this.borrowedAt = source.borrowedAt;
+        this.dueAt = source.dueAt;
+        this.returnedAt = source.returnedAt;
+        this.renewedCount = source.renewedCount;
+        this.status = source.status;
+        this.fineAmount = source.fineAmount;
+        this.finePaid = source.finePaid;
+        this.book = source.book.withFields(fields.nested("book"));
+        this.user = source.user;
+        this.fields = fields;
+    }
+    
+    // For the borrow, return and renew responses; the borrower is the caller, so no user is included
+    public static BorrowRecordView of(BorrowRecord record) {
+        Book book = record.getBook();
+        return new BorrowRecordView(record.getId(), record.getBorrowedAt(), record.getDueAt(), record.getReturnedAt(),
+                record.getRenewedCount(), record.getStatus(), record.getFineAmount(), record.getFinePaid(),
+                book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getGenre(),
+                book.getCoverImage(), book.getAvailableCopies(), book.getTotalCopies());
+    }
+    
+    public BorrowRecordView withFields(FieldSelection fields) {
+        return fields.isDefault() ? this : new BorrowRecordView(this, fields);
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public LocalDateTime getBorrowedAt() {
+        return borrowedAt;
+    }
+    
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+    
+    public LocalDateTime getReturnedAt() {
+        return returnedAt;
+    }
+    
+    public Integer getRenewedCount() {
+        return renewedCount;
+    }
+    
+    public BorrowRecord.Status getStatus() {
+        return status;
+    }
+    
+    public BigDecimal getFineAmount() {
+        return fineAmount;
+    }
+    
+    public Boolean getFinePaid() {
+        return finePaid;
+    }
+    
+    public BookSummary getBook() {
+        return book;
+    }
+    
+    public UserSummary getUser() {
+        return user;
+    }
+    
+    static final class Serializer extends ViewSerializer<BorrowRecordView> {
+        
+        private static final SerializedString ID = name("id");
+        private static final SerializedString BORROWED_AT = name("borrowedAt");
+        private static final SerializedString DUE_AT = name("dueAt");
+        private static final SerializedString RETURNED_AT = name("returnedAt");
+        private static final SerializedString RENEWED_COUNT = name("renewedCount");
+        private static final SerializedString STATUS = name("status");
+        private static final SerializedString FINE_AMOUNT = name("fineAmount");
+        private static final SerializedString FINE_PAID = name("finePaid");
+        private static final SerializedString BOOK = name("book");
+        private static final SerializedString USER = name("user");
+        
+        Serializer() {
+            super(BorrowRecordView.class);
+        }
+        
+        @Override
+        public void serialize(BorrowRecordView record, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            FieldSelection fields = record.fields;
+            gen.writeStartObject(record);
+            writeNumber(gen, ID, record.id);
+            if (fields.includes("borrowedAt")) {
+                writeDateTime(gen, provider, BORROWED_AT, record.borrowedAt);
+            }
+            if (fields.includes("dueAt")) {
+                writeDateTime(gen, provider, DUE_AT, record.dueAt);
+            }
+            if (fields.includes("returnedAt")) {
+                writeDateTime(gen, provider, RETURNED_AT, record.returnedAt);
+            }
+            if (fields.includes("renewedCount")) {
+                writeNumber(gen, RENEWED_COUNT, record.renewedCount);
+            }
+            if (fields.includes("status")) {
+                writeEnum(gen, STATUS, record.status);
+            }
+            if (fields.includes("fineAmount")) {
+                writeNumber(gen, FINE_AMOUNT, record.fineAmount);
+            }
+            if (fields.includes("finePaid")) {
+                writeBoolean(gen, FINE_PAID, record.finePaid);
+            }
+            if (fields.includes("book")) {
+                gen.writeFieldName(BOOK);
+                BookSummary.Serializer.INSTANCE.serialize(record.book, gen, provider);
+            }
+            if (record.user != null && fields.includes("user")) {
+                gen.writeFieldName(USER);
+                UserSummary.Serializer.INSTANCE.serialize(record.user, gen, provider);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
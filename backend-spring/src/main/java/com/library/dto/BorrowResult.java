@@ -0,0 +1,5 @@
+package com.library.dto;
+
+// data payload of the borrow, return and renew endpoints
+public record BorrowResult(BorrowRecordView borrowRecord) {
+}
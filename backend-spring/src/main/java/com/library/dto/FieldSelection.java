@@ -0,0 +1,89 @@
+package com.library.dto;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Sparse fieldset from a ?fields= parameter, e.g. fields=title,coverImage or, for views that embed a
+ * book, fields=dueAt,book.title. A dotted name selects a field of the embedded object and implies the
+ * object itself; naming the object alone keeps all of its fields. The id is always kept. Without the
+ * parameter every view writes its usual fields (DEFAULT).
+ */
+public final class FieldSelection {
+
+    public static final FieldSelection DEFAULT = new FieldSelection(null, Map.of());
+
+    // null: no selection, every field is written
+    private final Set<String> names;
+    private final Map<String, FieldSelection> nested;
+
+    private FieldSelection(Set<String> names, Map<String, FieldSelection> nested) {
+        this.names = names;
+        this.nested = nested;
+    }
+
+    // Names outside allowed are rejected with an IllegalArgumentException, reported as 400 by the controllers
+    public static FieldSelection parse(String spec, Set<String> allowed) {
+        if (spec == null || spec.isBlank()) {
+            return DEFAULT;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        names.add("id");
+        Map<String, Set<String>> nestedNames = new HashMap<>();
+        for (String part : spec.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "'");
+            }
+            int dot = name.indexOf('.');
+            if (dot < 0) {
+                names.add(name);
+            } else {
+                String parent = name.substring(0, dot);
+                names.add(parent);
+                nestedNames.computeIfAbsent(parent, key -> new LinkedHashSet<>(Set.of("id"))).add(name.substring(dot + 1));
+            }
+        }
+        Map<String, FieldSelection> nested = new HashMap<>();
+        nestedNames.forEach((parent, children) -> nested.put(parent, new FieldSelection(Set.copyOf(children), Map.of())));
+        return new FieldSelection(Set.copyOf(names), nested);
+    }
+
+    // Allowed names of a view that embeds another: its own names plus parent.name for each embedded one
+    public static Set<String> withNested(Set<String> own, String parent, Set<String> nested) {
+        Set<String> all = new HashSet<>(own);
+        nested.forEach(name -> all.add(parent + "." + name));
+        return Set.copyOf(all);
+    }
+
+    public boolean isDefault() {
+        return names == null;
+    }
+
+    public boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    // Selection inside an embedded object; DEFAULT unless dotted names narrowed it
+    public FieldSelection nested(String name) {
+        return nested.getOrDefault(name, DEFAULT);
+    }
+
+    // Canonical form, so equal selections share cache keys regardless of parameter order
+    @Override
+    public String toString() {
+        if (names == null) {
+            return "";
+        }
+        Set<String> all = new TreeSet<>(names);
+        nested.forEach((parent, selection) -> selection.names.forEach(child -> all.add(parent + "." + child)));
+        return String.join(",", all);
+    }
+}
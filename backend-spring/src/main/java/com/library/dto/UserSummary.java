@@ -0,0 +1,56 @@
+package com.library.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+
+@JsonSerialize(using = UserSummary.Serializer.class)
+public class UserSummary {
+    
+    private final Long id;
+    private final String name;
+    private final String email;
+    
+    public UserSummary(Long id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    static final class Serializer extends ViewSerializer<UserSummary> {
+        
+        static final Serializer INSTANCE = new Serializer();
+        
+        private static final SerializedString ID = name("id");
+        private static final SerializedString NAME = name("name");
+        private static final SerializedString EMAIL = name("email");
+        
+        Serializer() {
+            super(UserSummary.class);
+        }
+        
+        @Override
+        public void serialize(UserSummary user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(user);
+            writeNumber(gen, ID, user.id);
+            writeString(gen, NAME, user.name);
+            writeString(gen, EMAIL, user.email);
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.library.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Base for the hand-written serializers of the list views. Each subclass writes its fields in a
+ * fixed order, with no bean introspection or per-property dispatch. Field names are SerializedString
+ * constants, so their quoted UTF-8 bytes are encoded once and copied on every write. Null fields are
+ * omitted, matching spring.jackson.default-property-inclusion=non_null.
+ */
+public abstract class ViewSerializer<T> extends StdSerializer<T> {
+
+    protected ViewSerializer(Class<T> type) {
+        super(type);
+    }
+
+    protected static SerializedString name(String name) {
+        return new SerializedString(name);
+    }
+
+    protected static void writeNumber(JsonGenerator gen, SerializedString name, Long value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeNumber(value);
+        }
+    }
+
+    protected static void writeNumber(JsonGenerator gen, SerializedString name, Integer value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeNumber(value);
+        }
+    }
+
+    protected static void writeNumber(JsonGenerator gen, SerializedString name, BigDecimal value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeNumber(value);
+        }
+    }
+
+    protected static void writeString(JsonGenerator gen, SerializedString name, String value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        }
+    }
+
+    protected static void writeBoolean(JsonGenerator gen, SerializedString name, Boolean value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeBoolean(value);
+        }
+    }
+
+    protected static void writeEnum(JsonGenerator gen, SerializedString name, Enum<?> value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value.name());
+        }
+    }
+
+    // ISO strings as configured (write-dates-as-timestamps: false); otherwise defer to the registered serializer
+    protected static void writeDateTime(JsonGenerator gen, SerializerProvider provider, SerializedString name,
+                                        LocalDateTime value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeField(name.getValue(), value, gen);
+        } else {
+            gen.writeFieldName(name);
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+    }
+}
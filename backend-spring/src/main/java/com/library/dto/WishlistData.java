@@ -0,0 +1,11 @@
+package com.library.dto;
+
+import java.util.List;
+
+// data payload of the wishlist listing
+public record WishlistData(List<WishlistView> wishlist, int count) {
+
+    public WishlistData(List<WishlistView> wishlist) {
+        this(wishlist, wishlist.size());
+    }
+}
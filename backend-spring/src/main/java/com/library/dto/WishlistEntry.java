@@ -0,0 +1,5 @@
+package com.library.dto;
+
+// data payload when a book is added to the wishlist
+public record WishlistEntry(WishlistView wishlist) {
+}
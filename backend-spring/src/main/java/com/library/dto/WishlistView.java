@@ -0,0 +1,88 @@
+package com.library.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.library.entity.Book;
+import com.library.entity.Wishlist;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@JsonSerialize(using = WishlistView.Serializer.class)
+public class WishlistView {
+    
+    // Selectable through ?fields=; book.<name> narrows the embedded book summary
+    public static final Set<String> FIELDS = FieldSelection.withNested(Set.of("id", "createdAt", "book"),
+            "book", BookSummary.FIELDS);
+    
+    private final Long id;
+    private final LocalDateTime createdAt;
+    private final BookSummary book;
+    private final FieldSelection fields;
+    
+    public WishlistView(Long id, LocalDateTime createdAt, Long bookId, String title, String author, String isbn,
+                        String genre, String coverImage, Integer availableCopies, Integer totalCopies) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.book = new BookSummary(bookId, title, author, isbn, genre, coverImage, availableCopies, totalCopies);
+        this.fields = FieldSelection.DEFAULT;
+    }
+    
+    private WishlistView(WishlistView source, FieldSelection fields) {
+        this.id = source.id;
+        this.createdAt = source.createdAt;
+        this.book = source.book.withFields(fields.nested("book"));
+        this.fields = fields;
+    }
+    
+    public static WishlistView of(Wishlist wishlist) {
+        Book book = wishlist.getBook();
+        return new WishlistView(wishlist.getId(), wishlist.getCreatedAt(), book.getId(), book.getTitle(),
+                book.getAuthor(), book.getIsbn(), book.getGenre(), book.getCoverImage(),
+                book.getAvailableCopies(), book.getTotalCopies());
+    }
+    
+    public WishlistView withFields(FieldSelection fields) {
+        return fields.isDefault() ? this : new WishlistView(this, fields);
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public BookSummary getBook() {
+        return book;
+    }
+    
+    static final class Serializer extends ViewSerializer<WishlistView> {
+        
+        private static final SerializedString ID = name("id");
+        private static final SerializedString CREATED_AT = name("createdAt");
+        private static final SerializedString BOOK = name("book");
+        
+        Serializer() {
+            super(WishlistView.class);
+        }
+        
+        @Override
+        public void serialize(WishlistView entry, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(entry);
+            writeNumber(gen, ID, entry.id);
+            if (entry.fields.includes("createdAt")) {
+                writeDateTime(gen, provider, CREATED_AT, entry.createdAt);
+            }
+            if (entry.fields.includes("book")) {
+                gen.writeFieldName(BOOK);
+                BookSummary.Serializer.INSTANCE.serialize(entry.book, gen, provider);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -4,16 +4,20 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.library.config.HibernateCacheConfig;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embeddable;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
@@ -22,8 +26,8 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Max;
@@ -35,11 +39,15 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "books")
-@EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.BOOK_REGION)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@EntityListeners({AuditingEntityListener.class, BookChangeListener.class})
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Book title is required")
@@ -84,9 +92,9 @@ public class Book {
     @Embedded
     private Location location;
 
-    @ElementCollection
-    @CollectionTable(name = "book_tags", joinColumns = @JoinColumn(name = "book_id"))
-    @Column(name = "tag")
+    // Packed tag-dictionary ids (see TagDictionary), read with the row instead of a book_tags join
+    @Convert(converter = TagIdsConverter.class)
+    @Column(name = "tag_ids", length = 1024)
     private Set<String> tags;
 
     @Column(nullable = false)
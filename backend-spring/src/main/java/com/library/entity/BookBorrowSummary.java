@@ -0,0 +1,37 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Running count of a book's archived borrow records, folded into popularity rankings
+@Entity
+@Table(name = "book_borrow_summary")
+public class BookBorrowSummary {
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(nullable = false)
+    private Long archivedBorrows = 0L;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public BookBorrowSummary() {}
+
+    public BookBorrowSummary(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public void add(long borrows) {
+        this.archivedBorrows += borrows;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getBookId() { return bookId; }
+    public Long getArchivedBorrows() { return archivedBorrows; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
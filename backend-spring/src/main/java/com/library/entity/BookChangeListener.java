@@ -0,0 +1,24 @@
+package com.library.entity;
+
+import com.library.service.CatalogVersion;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+// Reports every book write to CatalogVersion, which moves the catalog validators on commit; injected like TagIdsConverter
+public class BookChangeListener {
+
+    // Lazy: CatalogVersion needs BookRepository, which is not ready while Hibernate creates this listener
+    @Autowired
+    @Lazy
+    private CatalogVersion catalogVersion;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void changed(Book book) {
+        catalogVersion.bookChanged(book.getId());
+    }
+}
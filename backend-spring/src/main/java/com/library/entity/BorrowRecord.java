@@ -18,15 +18,16 @@ import java.time.LocalDateTime;
 public class BorrowRecord {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "borrow_record_seq")
+    @SequenceGenerator(name = "borrow_record_seq", sequenceName = "borrow_records_seq", allocationSize = 50)
     private Long id;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @NotNull(message = "User is required")
     private User user;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id", nullable = false)
     @NotNull(message = "Book is required")
     private Book book;
@@ -0,0 +1,71 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Cold storage for closed borrow records; rows keep their original id and are moved by BorrowArchiveService
+@Entity
+@Table(name = "borrow_records_archive")
+public class BorrowRecordArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(nullable = false)
+    private LocalDateTime borrowedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime dueAt;
+
+    private LocalDateTime returnedAt;
+
+    @Column(nullable = false)
+    private Integer renewedCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BorrowRecord.Status status;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal fineAmount;
+
+    @Column(nullable = false)
+    private Boolean finePaid;
+
+    @Column(length = 500)
+    private String notes;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    public BorrowRecordArchive() {}
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public Long getBookId() { return bookId; }
+    public LocalDateTime getBorrowedAt() { return borrowedAt; }
+    public LocalDateTime getDueAt() { return dueAt; }
+    public LocalDateTime getReturnedAt() { return returnedAt; }
+    public Integer getRenewedCount() { return renewedCount; }
+    public BorrowRecord.Status getStatus() { return status; }
+    public BigDecimal getFineAmount() { return fineAmount; }
+    public Boolean getFinePaid() { return finePaid; }
+    public String getNotes() { return notes; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
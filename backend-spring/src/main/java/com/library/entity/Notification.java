@@ -0,0 +1,77 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+// Local outbox of user notifications; rows are written in batches by WishlistNotificationService
+@Entity
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_user_read", columnList = "user_id, read_at"),
+    @Index(name = "idx_notifications_book_read", columnList = "book_id, read_at")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class Notification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notifications_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Type type;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public Notification() {}
+
+    public Notification(Long userId, Long bookId, Type type, String message) {
+        this.userId = userId;
+        this.bookId = bookId;
+        this.type = type;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public LocalDateTime getReadAt() { return readAt; }
+    public void setReadAt(LocalDateTime readAt) { this.readAt = readAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public enum Type {
+        BOOK_AVAILABLE
+    }
+}
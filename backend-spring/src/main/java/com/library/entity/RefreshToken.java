@@ -0,0 +1,53 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// An issued refresh token, stored only as its SHA-256 hash (hex) and looked up by primary key
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Drives the per-user LRU cap: the least recently used token is dropped first
+    @Column(nullable = false)
+    private LocalDateTime lastUsedAt;
+
+    public RefreshToken() {}
+
+    public RefreshToken(String tokenHash, Long userId, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.createdAt = LocalDateTime.now();
+        this.lastUsedAt = this.createdAt;
+    }
+
+    public boolean isExpired() {
+        return expiresAt.isBefore(LocalDateTime.now());
+    }
+
+    public void touch() {
+        this.lastUsedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public String getTokenHash() { return tokenHash; }
+    public Long getUserId() { return userId; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getLastUsedAt() { return lastUsedAt; }
+}
@@ -0,0 +1,39 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// An access token revoked before it expired, identified by its jti claim; kept until that expiry
+@Entity
+@Table(name = "revoked_access_tokens")
+public class RevokedAccessToken {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+
+    public RevokedAccessToken() {}
+
+    public RevokedAccessToken(String jti, Long userId, LocalDateTime expiresAt) {
+        this.jti = jti;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.revokedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public String getJti() { return jti; }
+    public Long getUserId() { return userId; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public LocalDateTime getRevokedAt() { return revokedAt; }
+}
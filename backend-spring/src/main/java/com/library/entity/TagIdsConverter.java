@@ -0,0 +1,26 @@
+package com.library.entity;
+
+import com.library.service.TagDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Set;
+
+// Maps Book.tags to the packed tag-id column; instantiated by Hibernate through Spring, so the dictionary is injected
+@Converter
+public class TagIdsConverter implements AttributeConverter<Set<String>, byte[]> {
+
+    @Autowired
+    private TagDictionary tagDictionary;
+
+    @Override
+    public byte[] convertToDatabaseColumn(Set<String> tags) {
+        return tagDictionary.encode(tags);
+    }
+
+    @Override
+    public Set<String> convertToEntityAttribute(byte[] packed) {
+        return tagDictionary.decode(packed);
+    }
+}
@@ -1,10 +1,14 @@
 package com.library.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import com.library.config.HibernateCacheConfig;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -15,15 +19,18 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_REGION)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @EntityListeners(AuditingEntityListener.class)
 public class User implements UserDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Name is required")
@@ -49,11 +56,10 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private Boolean isActive = true;
     
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "user_refresh_tokens", joinColumns = @JoinColumn(name = "user_id"))
-    @Column(name = "refresh_token", length = 500)
+    // Embedded in access tokens; bumping it revokes every token issued before (see TokenEpochs)
     @JsonIgnore
-    private Set<String> refreshTokens;
+    @Column(nullable = false)
+    private Integer tokenEpoch = 0;
     
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
@@ -156,12 +162,12 @@ public class User implements UserDetails {
         this.isActive = isActive;
     }
     
-    public Set<String> getRefreshTokens() {
-        return refreshTokens;
+    public Integer getTokenEpoch() {
+        return tokenEpoch;
     }
     
-    public void setRefreshTokens(Set<String> refreshTokens) {
-        this.refreshTokens = refreshTokens;
+    public void setTokenEpoch(Integer tokenEpoch) {
+        this.tokenEpoch = tokenEpoch;
     }
     
     public List<BorrowRecord> getBorrowRecords() {
@@ -0,0 +1,43 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Running totals of a user's archived borrow records, so stats never have to scan the archive
+@Entity
+@Table(name = "user_borrow_summary")
+public class UserBorrowSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long archivedBorrows = 0L;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal archivedFines = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public UserBorrowSummary() {}
+
+    public UserBorrowSummary(Long userId) {
+        this.userId = userId;
+    }
+
+    public void add(long borrows, BigDecimal fines) {
+        this.archivedBorrows += borrows;
+        this.archivedFines = this.archivedFines.add(fines != null ? fines : BigDecimal.ZERO);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getUserId() { return userId; }
+    public Long getArchivedBorrows() { return archivedBorrows; }
+    public BigDecimal getArchivedFines() { return archivedFines; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,9 @@
+package com.library.repository;
+
+import com.library.entity.BookBorrowSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookBorrowSummaryRepository extends JpaRepository<BookBorrowSummary, Long> {
+}
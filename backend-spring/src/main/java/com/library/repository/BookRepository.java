@@ -1,27 +1,42 @@
 package com.library.repository;
 
+import com.library.config.HibernateCacheConfig;
 import com.library.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
     
-    Optional<Book> findByIdAndIsActive(Long id, Boolean isActive);
+    // Changes whenever a book is added, edited, borrowed, returned or deactivated (see CatalogVersion)
+    interface CatalogStamp {
+        long getBookCount();
+        LocalDateTime getLastUpdated();
+    }
     
-    Page<Book> findByIsActive(Boolean isActive, Pageable pageable);
+    @Query("SELECT COUNT(b) AS bookCount, MAX(b.updatedAt) AS lastUpdated FROM Book b")
+    CatalogStamp findCatalogStamp();
     
-    Page<Book> findByGenreIgnoreCaseAndIsActive(String genre, Boolean isActive, Pageable pageable);
-    
-    Page<Book> findByPublishedYearAndIsActive(Integer publishedYear, Boolean isActive, Pageable pageable);
+    // Query cache holds ids only; the rows come from the entity region and are invalidated by any books write
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HINT_CACHE_REGION, value = HibernateCacheConfig.BOOK_QUERY_REGION)})
+    Optional<Book> findByIdAndIsActive(Long id, Boolean isActive);
     
-    Page<Book> findByGenreIgnoreCaseAndPublishedYearAndIsActive(String genre, Integer publishedYear, Boolean isActive, Pageable pageable);
+    Page<Book> findByIsActive(Boolean isActive, Pageable pageable);
     
     @Query("SELECT b FROM Book b WHERE b.isActive = true AND " +
            "(LOWER(b.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -47,10 +62,29 @@ public interface BookRepository extends JpaRepository<Book, Long> {
                                             @Param("available") Boolean available,
                                             Pageable pageable);
     
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HINT_CACHE_REGION, value = HibernateCacheConfig.BOOK_QUERY_REGION)})
     @Query("SELECT COUNT(b) FROM Book b WHERE b.isActive = true")
     long countActiveBooks();
     
     boolean existsByIsbn(String isbn);
     
     boolean existsByIsbnAndIdNot(String isbn, Long id);
+
+    // Seeds the duplicate check for bulk imports without materializing Book entities
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IS NOT NULL")
+    Stream<String> streamAllIsbns();
+
+    // Active books for the in-memory catalog snapshot (see CatalogSnapshot), read off a cursor
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b FROM Book b WHERE b.isActive = true ORDER BY b.id")
+    Stream<Book> streamActiveBooks();
+
+    // Flat rows for the catalog export; tags come back decoded from the packed column as a Set
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.id, b.title, b.author, b.isbn, b.genre, b.publishedYear, b.description, b.coverImage, " +
+           "b.totalCopies, b.availableCopies, b.location.shelf, b.location.section, b.isActive, b.createdAt, b.updatedAt, " +
+           "b.tags FROM Book b ORDER BY b.id")
+    Stream<Object[]> streamExportRows();
 }
@@ -0,0 +1,49 @@
+package com.library.repository;
+
+import com.library.dto.BorrowRecordView;
+import com.library.entity.BorrowRecordArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface BorrowRecordArchiveRepository extends JpaRepository<BorrowRecordArchive, Long> {
+    
+    // Same shape as BorrowRecordRepository.VIEW_SELECT so hot and archived pages can be merged
+    @Query("SELECT new com.library.dto.BorrowRecordView(a.id, a.borrowedAt, a.dueAt, a.returnedAt, " +
+           "a.renewedCount, a.status, a.fineAmount, a.finePaid, b.id, b.title, b.author, b.isbn, b.genre, " +
+           "b.coverImage, b.availableCopies, b.totalCopies) " +
+           "FROM BorrowRecordArchive a JOIN Book b ON b.id = a.bookId " +
+           "WHERE a.userId = :userId ORDER BY a.borrowedAt DESC")
+    List<BorrowRecordView> findViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT b.genre, COUNT(a) FROM BorrowRecordArchive a JOIN Book b ON b.id = a.bookId " +
+           "WHERE a.userId = :userId AND b.genre IS NOT NULL GROUP BY b.genre")
+    List<Object[]> countGenresByUserId(@Param("userId") Long userId);
+    
+    // Copies a chunk of hot rows verbatim; the caller deletes them from borrow_records in the same transaction
+    @Modifying
+    @Query("INSERT INTO BorrowRecordArchive (id, userId, bookId, borrowedAt, dueAt, returnedAt, renewedCount, " +
+           "status, fineAmount, finePaid, notes, createdAt, updatedAt, archivedAt) " +
+           "SELECT br.id, br.user.id, br.book.id, br.borrowedAt, br.dueAt, br.returnedAt, br.renewedCount, " +
+           "br.status, br.fineAmount, br.finePaid, br.notes, br.createdAt, br.updatedAt, :archivedAt " +
+           "FROM BorrowRecord br WHERE br.id IN :ids")
+    int copyFromBorrowRecords(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.id, a.userId, u.email, a.bookId, b.isbn, b.title, a.borrowedAt, a.dueAt, a.returnedAt, " +
+           "a.renewedCount, a.status, a.fineAmount, a.finePaid, a.notes " +
+           "FROM BorrowRecordArchive a JOIN User u ON u.id = a.userId JOIN Book b ON b.id = a.bookId ORDER BY a.id")
+    Stream<Object[]> streamExportRows();
+}
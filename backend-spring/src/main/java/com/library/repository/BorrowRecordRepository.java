@@ -1,21 +1,61 @@
 package com.library.repository;
 
+import com.library.dto.BorrowRecordView;
 import com.library.entity.BorrowRecord;
 import com.library.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, Long> {
     
+    // Lean list projections: one joined select per page, no entity graphs
+    String VIEW_SELECT = "SELECT new com.library.dto.BorrowRecordView(br.id, br.borrowedAt, br.dueAt, br.returnedAt, " +
+           "br.renewedCount, br.status, br.fineAmount, br.finePaid, b.id, b.title, b.author, b.isbn, b.genre, " +
+           "b.coverImage, b.availableCopies, b.totalCopies";
+    
+    @Query(value = VIEW_SELECT + ") FROM BorrowRecord br JOIN br.book b " +
+           "WHERE br.user = :user ORDER BY br.borrowedAt DESC",
+           countQuery = "SELECT COUNT(br) FROM BorrowRecord br WHERE br.user = :user")
+    Page<BorrowRecordView> findViewsByUser(@Param("user") User user, Pageable pageable);
+    
+    @Query(value = VIEW_SELECT + ") FROM BorrowRecord br JOIN br.book b " +
+           "WHERE br.user = :user AND br.status = :status ORDER BY br.borrowedAt DESC",
+           countQuery = "SELECT COUNT(br) FROM BorrowRecord br WHERE br.user = :user AND br.status = :status")
+    Page<BorrowRecordView> findViewsByUserAndStatus(@Param("user") User user,
+                                                    @Param("status") BorrowRecord.Status status,
+                                                    Pageable pageable);
+    
+    @Query(VIEW_SELECT + ") FROM BorrowRecord br JOIN br.book b " +
+           "WHERE br.user = :user AND br.status IN :statuses ORDER BY br.dueAt")
+    List<BorrowRecordView> findViewsByUserAndStatusIn(@Param("user") User user,
+                                                      @Param("statuses") List<BorrowRecord.Status> statuses);
+    
+    @Query(VIEW_SELECT + ", u.id, u.name, u.email) FROM BorrowRecord br JOIN br.book b JOIN br.user u " +
+           "WHERE br.status IN :statuses ORDER BY br.borrowedAt DESC")
+    List<BorrowRecordView> findRecentViews(@Param("statuses") List<BorrowRecord.Status> statuses, Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT br.id, u.id, u.email, b.id, b.isbn, b.title, br.borrowedAt, br.dueAt, br.returnedAt, " +
+           "br.renewedCount, br.status, br.fineAmount, br.finePaid, br.notes " +
+           "FROM BorrowRecord br JOIN br.user u JOIN br.book b ORDER BY br.id")
+    Stream<Object[]> streamExportRows();
+    
     Page<BorrowRecord> findByUserOrderByBorrowedAtDesc(User user, Pageable pageable);
     
     Page<BorrowRecord> findByUserAndStatusOrderByBorrowedAtDesc(User user, BorrowRecord.Status status, Pageable pageable);
@@ -35,11 +75,13 @@ public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, Long
     @Query("SELECT br FROM BorrowRecord br WHERE br.status IN :statuses ORDER BY br.borrowedAt DESC")
     Page<BorrowRecord> findByStatusInOrderByBorrowedAtDesc(@Param("statuses") List<BorrowRecord.Status> statuses, Pageable pageable);
     
-    @Query("SELECT br.book.id as bookId, br.book.title as title, br.book.author as author, COUNT(br) as borrowCount " +
-           "FROM BorrowRecord br " +
-           "GROUP BY br.book.id, br.book.title, br.book.author " +
-           "ORDER BY COUNT(br) DESC")
-    Page<Object[]> findMostBorrowedBooks(Pageable pageable);
+    // Popularity across hot and archived records, ranked and limited in the database: (bookId, title, author, borrows)
+    @Query(value = "SELECT t.book_id, b.title, b.author, SUM(t.borrows) AS borrow_count FROM (" +
+           "SELECT book_id, COUNT(*) AS borrows FROM borrow_records GROUP BY book_id " +
+           "UNION ALL SELECT book_id, archived_borrows FROM book_borrow_summary) t " +
+           "JOIN books b ON b.id = t.book_id " +
+           "GROUP BY t.book_id, b.title, b.author ORDER BY borrow_count DESC, t.book_id", nativeQuery = true)
+    List<Object[]> findMostBorrowedBooks(Pageable pageable);
     
     @Query("SELECT br.book.genre as genre, COUNT(br) as count " +
            "FROM BorrowRecord br " +
@@ -60,4 +102,27 @@ public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, Long
     
     @Query("SELECT SUM(br.fineAmount) FROM BorrowRecord br WHERE br.user = :user")
     BigDecimal getTotalFinesByUser(@Param("user") User user);
+    
+    // Recommendation batch job: distinct (userId, bookId) pairs grouped by user, across hot and archived records
+    @Query(value = "SELECT user_id, book_id FROM borrow_records " +
+           "UNION SELECT user_id, book_id FROM borrow_records_archive ORDER BY 1", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamUserBookPairs();
+    
+    // Archival: closed loans (returned, no outstanding fine) older than the cutoff, oldest ids first
+    @Query("SELECT br.id FROM BorrowRecord br WHERE br.status = :status " +
+           "AND br.returnedAt < :cutoff AND (br.finePaid = true OR br.fineAmount = 0) ORDER BY br.id")
+    List<Long> findArchivableIds(@Param("status") BorrowRecord.Status status,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Pageable pageable);
+    
+    @Query("SELECT br.user.id, COUNT(br), SUM(br.fineAmount) FROM BorrowRecord br WHERE br.id IN :ids GROUP BY br.user.id")
+    List<Object[]> summarizeByUser(@Param("ids") List<Long> ids);
+    
+    @Query("SELECT br.book.id, COUNT(br) FROM BorrowRecord br WHERE br.id IN :ids GROUP BY br.book.id")
+    List<Object[]> summarizeByBook(@Param("ids") List<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM BorrowRecord br WHERE br.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,29 @@
+package com.library.repository;
+
+import com.library.entity.Notification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    
+    List<Notification> findByUserIdAndReadAtIsNullOrderByCreatedAtDesc(Long userId);
+    
+    // Used to coalesce: users who still hold an unread notification of this type for the book
+    @Query("SELECT n.userId FROM Notification n WHERE n.bookId = :bookId AND n.type = :type " +
+           "AND n.readAt IS NULL AND n.userId IN :userIds")
+    List<Long> findUnreadRecipients(@Param("bookId") Long bookId,
+                                    @Param("type") Notification.Type type,
+                                    @Param("userIds") Collection<Long> userIds);
+    
+    @Modifying
+    @Query("UPDATE Notification n SET n.readAt = :readAt WHERE n.userId = :userId AND n.readAt IS NULL")
+    int markAllRead(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+}
@@ -0,0 +1,35 @@
+package com.library.repository;
+
+import com.library.entity.RefreshToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // Most recently used first; everything past the per-user cap is evicted
+    @Query("SELECT t.tokenHash FROM RefreshToken t WHERE t.userId = :userId ORDER BY t.lastUsedAt DESC, t.createdAt DESC")
+    List<String> findHashesByUserIdMostRecentFirst(@Param("userId") Long userId);
+
+    @Query("SELECT t.tokenHash FROM RefreshToken t WHERE t.userId = :userId")
+    List<String> findHashesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT t.tokenHash FROM RefreshToken t WHERE t.expiresAt < :now")
+    List<String> findExpiredHashes(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.tokenHash = :hash AND t.userId = :userId")
+    int deleteByTokenHashAndUserId(@Param("hash") String hash, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.tokenHash IN :hashes")
+    int deleteByTokenHashIn(@Param("hashes") Collection<String> hashes);
+}
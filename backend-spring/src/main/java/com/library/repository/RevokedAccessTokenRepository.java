@@ -0,0 +1,28 @@
+package com.library.repository;
+
+import com.library.entity.RevokedAccessToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RevokedAccessTokenRepository extends JpaRepository<RevokedAccessToken, String> {
+
+    // Everything the revocation filter must still cover
+    @Query("SELECT t.jti FROM RevokedAccessToken t WHERE t.expiresAt >= :now")
+    List<String> findUnexpiredJtis(@Param("now") LocalDateTime now);
+
+    @Query("SELECT t.jti FROM RevokedAccessToken t WHERE t.expiresAt < :now")
+    List<String> findExpiredJtis(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM RevokedAccessToken t WHERE t.jti IN :jtis")
+    int deleteByJtiIn(@Param("jtis") Collection<String> jtis);
+}
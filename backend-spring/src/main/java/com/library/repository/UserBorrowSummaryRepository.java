@@ -0,0 +1,15 @@
+package com.library.repository;
+
+import com.library.entity.UserBorrowSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface UserBorrowSummaryRepository extends JpaRepository<UserBorrowSummary, Long> {
+    
+    @Query("SELECT SUM(s.archivedFines) FROM UserBorrowSummary s")
+    BigDecimal getTotalArchivedFines();
+}
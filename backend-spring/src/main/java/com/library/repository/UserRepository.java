@@ -1,20 +1,29 @@
 package com.library.repository;
 
+import com.library.config.HibernateCacheConfig;
 import com.library.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
     Optional<User> findByEmail(String email);
     
+    // Runs on every authenticated request; cached ids resolve through the user entity region
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HINT_CACHE_REGION, value = HibernateCacheConfig.USER_QUERY_REGION)})
     Optional<User> findByEmailAndIsActive(String email, Boolean isActive);
     
     boolean existsByEmail(String email);
@@ -26,6 +35,4 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role AND u.isActive = :isActive")
     long countByRoleAndIsActive(@Param("role") User.Role role, @Param("isActive") Boolean isActive);
     
-    @Query("SELECT u FROM User u JOIN u.refreshTokens rt WHERE rt = :refreshToken")
-    Optional<User> findByRefreshToken(@Param("refreshToken") String refreshToken);
 }
@@ -1,18 +1,31 @@
 package com.library.repository;
 
+import com.library.dto.WishlistView;
 import com.library.entity.Wishlist;
 import com.library.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
     
     List<Wishlist> findByUserOrderByCreatedAtDesc(User user);
     
+    @Query("SELECT new com.library.dto.WishlistView(w.id, w.createdAt, b.id, b.title, b.author, b.isbn, " +
+           "b.genre, b.coverImage, b.availableCopies, b.totalCopies) " +
+           "FROM Wishlist w JOIN w.book b WHERE w.user = :user ORDER BY w.createdAt DESC")
+    List<WishlistView> findViewsByUser(@Param("user") User user);
+    
     Optional<Wishlist> findByUserAndBookId(User user, Long bookId);
     
     boolean existsByUserAndBookId(User user, Long bookId);
@@ -20,4 +33,9 @@ public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
     void deleteByUserAndBookId(User user, Long bookId);
     
     long countByUser(User user);
+    
+    // Wishlist index bootstrap: (bookId, userId) pairs
+    @Query("SELECT w.book.id, w.user.id FROM Wishlist w")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamBookUserPairs();
 }
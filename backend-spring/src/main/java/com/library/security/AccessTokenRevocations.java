@@ -0,0 +1,157 @@
+package com.library.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.entity.RevokedAccessToken;
+import com.library.repository.RevokedAccessTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation list for access tokens, keyed by their jti claim. Revoked ids are stored in
+ * revoked_access_tokens with the token's expiry. A Bloom filter over the unexpired ids answers the
+ * usual "not revoked" case in memory. Only a filter hit (a revoked token, or a rare false positive)
+ * reads the table, and that answer is cached. The filter is rebuilt from the table on a schedule:
+ * this drops ids that have expired and picks up revocations made on other instances. Expired rows
+ * are purged in batches.
+ */
+@Component
+public class AccessTokenRevocations {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenRevocations.class);
+
+    @Autowired
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.revocation.expected-entries:10000}")
+    private long expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${jwt.revocation.lookup-cache.max-entries:10000}")
+    private long lookupCacheEntries;
+
+    @Value("${jwt.revocation.purge-batch-size:500}")
+    private int purgeBatchSize;
+
+    private volatile BloomFilter filter;
+
+    // Revoked on this instance and not yet expired (jti -> expiry, epoch ms); re-added on every rebuild
+    // so a revocation that commits while the rebuild query runs is not lost
+    private final Map<String, Long> revokedHere = new ConcurrentHashMap<>();
+
+    // Table answers for filter hits; cleared on each rebuild
+    private Cache<String, Boolean> lookups;
+
+    private Counter storeLookups;
+
+    @PostConstruct
+    void init() {
+        lookups = Caffeine.newBuilder()
+                .maximumSize(lookupCacheEntries)
+                .build();
+        storeLookups = Counter.builder("auth.revocation.store.lookups")
+                .description("Access token revocation checks that passed the Bloom filter and read the table")
+                .register(meterRegistry);
+        rebuild();
+    }
+
+    // Tokens issued before jti claims were added carry no id and cannot be revoked individually
+    public void revoke(Claims claims, Long userId) {
+        String jti = claims.getId();
+        if (jti == null || claims.getExpiration() == null) {
+            return;
+        }
+        long expiresAt = claims.getExpiration().getTime();
+        synchronized (this) {
+            revokedHere.put(jti, expiresAt);
+            filter.put(jti);
+        }
+        lookups.put(jti, Boolean.TRUE);
+        if (!revokedAccessTokenRepository.existsById(jti)) {
+            revokedAccessTokenRepository.save(new RevokedAccessToken(jti, userId,
+                    LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault())));
+        }
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        if (revokedHere.containsKey(jti)) {
+            return true;
+        }
+        return lookups.get(jti, id -> {
+            storeLookups.increment();
+            return revokedAccessTokenRepository.existsById(id);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval-ms:30000}",
+            initialDelayString = "${jwt.revocation.rebuild-interval-ms:30000}")
+    public void rebuild() {
+        List<String> unexpired = revokedAccessTokenRepository.findUnexpiredJtis(LocalDateTime.now());
+        BloomFilter next = new BloomFilter(Math.max(expectedEntries, 2L * unexpired.size()), falsePositiveRate);
+        unexpired.forEach(next::put);
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            revokedHere.values().removeIf(expiresAt -> expiresAt < now);
+            revokedHere.keySet().forEach(next::put);
+            filter = next;
+        }
+        lookups.invalidateAll();
+        log.debug("Rebuilt access token revocation filter: {} ids, {} bits", unexpired.size(), next.bitSize());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long purged = 0;
+        while (true) {
+            Integer deleted = tx.execute(status -> {
+                List<String> expired = revokedAccessTokenRepository.findExpiredJtis(
+                        LocalDateTime.now(), PageRequest.of(0, purgeBatchSize));
+                if (expired.isEmpty()) {
+                    return 0;
+                }
+                revokedAccessTokenRepository.deleteByJtiIn(expired);
+                return expired.size();
+            });
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            purged += deleted;
+            if (deleted < purgeBatchSize) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            log.info("Purged {} expired access token revocations", purged);
+        }
+    }
+}
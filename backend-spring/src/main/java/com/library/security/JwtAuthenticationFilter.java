@@ -1,11 +1,14 @@
 package com.library.security;
 
+import com.library.entity.User;
 import com.library.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,16 +25,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenEpochs tokenEpochs;
+
+    @Autowired
+    private AccessTokenRevocations revocations;
+
+    // Build the principal from token claims alone; revocation goes through the epoch table
+    @Value("${jwt.claims-only:false}")
+    private boolean claimsOnly;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
         
         String token = getTokenFromRequest(request);
         
-        if (token != null && tokenProvider.validateToken(token)) {
-            String email = tokenProvider.getEmailFromToken(token);
+        // Verified once per request (and usually served from the provider's verified-token cache)
+        Claims claims = tokenProvider.verifyAccessToken(token);
+        if (claims != null && !revocations.isRevoked(claims)) {
+            String email = claims.getSubject();
             
-            UserDetails userDetails = userService.loadUserByUsername(email);
+            UserDetails userDetails;
+            if (claimsOnly && claims.get(JwtTokenProvider.CLAIM_USER_ID) != null) {
+                userDetails = principalFromClaims(claims);
+            } else {
+                userDetails = principalCache.get(email, key -> (User) userService.loadUserByUsername(key));
+            }
             
             if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = 
@@ -45,6 +68,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Returns null when the token's epoch is no longer current (role change, deactivation)
+    private User principalFromClaims(Claims claims) {
+        Long userId = ((Number) claims.get(JwtTokenProvider.CLAIM_USER_ID)).longValue();
+        Number epoch = (Number) claims.get(JwtTokenProvider.CLAIM_EPOCH);
+        if (epoch == null || epoch.intValue() != tokenEpochs.current(userId)) {
+            return null;
+        }
+        // Carries identity and role only; endpoints that need the full profile load it by id
+        User user = new User();
+        user.setId(userId);
+        user.setEmail(claims.getSubject());
+        user.setRole(User.Role.valueOf((String) claims.get(JwtTokenProvider.CLAIM_ROLE)));
+        user.setIsActive(true);
+        user.setTokenEpoch(epoch.intValue());
+        return user;
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
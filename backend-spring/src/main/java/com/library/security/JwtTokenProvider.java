@@ -1,14 +1,31 @@
 package com.library.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.library.entity.User;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.impl.TextCodec;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final SignatureAlgorithm ALGORITHM = SignatureAlgorithm.HS512;
+
+    // Access token claims that let JwtAuthenticationFilter build the principal without a lookup (jwt.claims-only)
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_EPOCH = "epoch";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -21,15 +38,64 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private Long jwtRefreshExpiration;
 
-    public String generateAccessToken(String email) {
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private long verifiedCacheEntries;
+
+    // Derived once; the String overloads of jjwt re-decode the base64 secret on every call
+    private Key accessKey;
+    private Key refreshKey;
+
+    // Configured parsers hold no per-parse state and are shared across threads
+    private JwtParser accessParser;
+    private JwtParser refreshParser;
+
+    // Recently verified access tokens, each kept until its own expiry, so repeat requests skip the HMAC and JSON decode
+    private Cache<String, Claims> verifiedAccessTokens;
+
+    @PostConstruct
+    void init() {
+        accessKey = new SecretKeySpec(TextCodec.BASE64.decode(jwtSecret), ALGORITHM.getJcaName());
+        refreshKey = new SecretKeySpec(TextCodec.BASE64.decode(jwtRefreshSecret), ALGORITHM.getJcaName());
+        accessParser = Jwts.parser().setSigningKey(accessKey);
+        refreshParser = Jwts.parser().setSigningKey(refreshKey);
+        verifiedAccessTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheEntries)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        long remainingMs = claims.getExpiration() != null
+                                ? claims.getExpiration().getTime() - System.currentTimeMillis()
+                                : jwtExpiration;
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public String generateAccessToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
         return Jwts.builder()
-                .setSubject(email)
+                .setSubject(user.getEmail())
+                // Token id, so a single token can be revoked (see AccessTokenRevocations)
+                .setId(UUID.randomUUID().toString())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_EPOCH, user.getTokenEpoch())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .signWith(ALGORITHM, accessKey)
                 .compact();
     }
 
@@ -41,56 +107,60 @@ public class JwtTokenProvider {
                 .setSubject(email)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(SignatureAlgorithm.HS512, jwtRefreshSecret)
+                .signWith(ALGORITHM, refreshKey)
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(jwtSecret)
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies an access token once and returns its claims, or null if it is malformed, forged or expired.
+     * Callers should use the returned claims rather than re-parsing the token.
+     */
+    public Claims verifyAccessToken(String token) {
+        if (token == null) {
+            return null;
+        }
+        // Keyed by the whole token: a hit requires the exact header, payload and signature that were verified
+        Claims claims = verifiedAccessTokens.getIfPresent(token);
+        if (claims != null) {
+            return claims;
+        }
+        claims = parse(accessParser, token);
+        if (claims != null) {
+            verifiedAccessTokens.put(token, claims);
+        }
+        return claims;
+    }
+
+    // Refresh tokens are presented rarely, so they are verified without caching
+    public Claims verifyRefreshToken(String token) {
+        return token != null ? parse(refreshParser, token) : null;
+    }
 
+    public String getEmailFromToken(String token) {
+        Claims claims = verifyAccessToken(token);
+        if (claims == null) {
+            throw new JwtException("Invalid access token");
+        }
         return claims.getSubject();
     }
 
     public String getEmailFromRefreshToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(jwtRefreshSecret)
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
+        return refreshParser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                .setSigningKey(jwtSecret)
-                .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return verifyAccessToken(token) != null;
     }
 
     public boolean validateRefreshToken(String token) {
-        try {
-            Jwts.parser()
-                .setSigningKey(jwtRefreshSecret)
-                .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return verifyRefreshToken(token) != null;
     }
 
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(jwtSecret)
-                .parseClaimsJws(token)
-                .getBody();
-
+        Claims claims = verifyAccessToken(token);
+        if (claims == null) {
+            throw new JwtException("Invalid access token");
+        }
         return claims.getExpiration();
     }
 
@@ -98,4 +168,12 @@ public class JwtTokenProvider {
         Date expiration = getExpirationDateFromToken(token);
         return expiration.before(new Date());
     }
+
+    private static Claims parse(JwtParser parser, String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
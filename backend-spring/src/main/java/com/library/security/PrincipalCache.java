@@ -0,0 +1,78 @@
+package com.library.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.entity.User;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Short-lived, size-bounded cache of authenticated principals keyed by email, so JwtAuthenticationFilter
+ * can resolve a bearer token without a database round trip. Entries are snapshots: each request gets
+ * its own copy, so a controller that mutates its principal cannot leak changes to other requests.
+ * UserService invalidates a user's entry whenever their profile, role or active flag changes. The TTL
+ * covers changes made on other instances.
+ */
+@Component
+public class PrincipalCache {
+
+    @Value("${principal-cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Cache<String, User> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public User get(String email, Function<String, User> loader) {
+        return copy(cache.get(email, key -> copy(loader.apply(key))));
+    }
+
+    public void invalidate(User user) {
+        invalidate(user.getId(), user.getEmail());
+    }
+
+    // Drops the entry now and again after commit, so a concurrent request cannot re-cache the old row
+    public void invalidate(Long userId, String email) {
+        Runnable evict = () -> {
+            if (email != null) {
+                cache.invalidate(email);
+            }
+            // The email may itself have just changed; fall back to matching on id
+            cache.asMap().values().removeIf(cached -> cached.getId().equals(userId));
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    private static User copy(User user) {
+        User copy = new User(user.getName(), user.getEmail(), user.getPassword());
+        copy.setId(user.getId());
+        copy.setRole(user.getRole());
+        copy.setIsActive(user.getIsActive());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setUpdatedAt(user.getUpdatedAt());
+        return copy;
+    }
+}
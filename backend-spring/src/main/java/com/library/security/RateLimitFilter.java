@@ -0,0 +1,50 @@
+package com.library.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.dto.ApiResponse;
+import com.library.entity.User;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Runs after JwtAuthenticationFilter so per-user limits can see the principal; answers 429 with Retry-After
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = authentication != null && authentication.getPrincipal() instanceof User user ? user.getId() : null;
+
+        // getRemoteAddr honours X-Forwarded-For only when server.forward-headers-strategy is configured
+        long retryAfterSeconds = rateLimiter.check(request.getMethod(), request.getRequestURI(),
+                request.getRemoteAddr(), userId);
+        if (retryAfterSeconds > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error("Too many requests, please retry later"));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,250 @@
+package com.library.security;
+
+import com.library.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory token buckets for the routes configured under rate-limit.rules. Each rule keeps one bucket
+ * table per dimension (client IP, user id). A table is split into lock stripes, each a plain HashMap
+ * guarded by its own monitor, so concurrent requests for different clients rarely contend. A check is
+ * a hash lookup and a few arithmetic operations; it allocates only when a client's first bucket is
+ * created. Buckets that are idle and already refilled are swept periodically.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final int STRIPES = 64;
+
+    private final boolean enabled;
+    private final long idleEvictNanos;
+    private final List<Rule> rules = new ArrayList<>();
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.idleEvictNanos = TimeUnit.SECONDS.toNanos(properties.getIdleEvictSeconds());
+        PathPatternParser parser = new PathPatternParser();
+        for (RateLimitProperties.Rule config : properties.getRules()) {
+            rules.add(new Rule(config, parser, meterRegistry));
+        }
+        if (enabled) {
+            log.info("Rate limiting {} route rules: {}", rules.size(),
+                    rules.stream().map(rule -> rule.name).collect(Collectors.joining(", ")));
+        }
+    }
+
+    /**
+     * Takes a token from every bucket that applies to the request, or from none of them. Returns 0 if
+     * the request may proceed, otherwise the number of seconds until a token will be available (for
+     * Retry-After).
+     */
+    public long check(String method, String path, String clientIp, Long userId) {
+        if (!enabled || rules.isEmpty()) {
+            return 0;
+        }
+        Rule rule = match(method, path);
+        if (rule == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        boolean byIp = rule.perIp != null && clientIp != null;
+        boolean byUser = rule.perUser != null && userId != null;
+        long waitNanos;
+        if (byIp && byUser) {
+            waitNanos = BucketTable.tryAcquireBoth(rule.perIp, clientIp, rule.perUser, userId, now);
+        } else if (byIp) {
+            waitNanos = rule.perIp.tryAcquire(clientIp, now);
+        } else if (byUser) {
+            waitNanos = rule.perUser.tryAcquire(userId, now);
+        } else {
+            return 0;
+        }
+        if (waitNanos == 0) {
+            return 0;
+        }
+        rule.rejected.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Rule rule : rules) {
+            if (rule.perIp != null) {
+                evicted += rule.perIp.evictIdle(now, idleEvictNanos);
+            }
+            if (rule.perUser != null) {
+                evicted += rule.perUser.evictIdle(now, idleEvictNanos);
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    private Rule match(String method, String path) {
+        PathContainer container = null;
+        for (Rule rule : rules) {
+            if (!rule.methods.isEmpty() && !rule.methods.contains(method)) {
+                continue;
+            }
+            if (container == null) {
+                container = PathContainer.parsePath(path);
+            }
+            if (rule.pattern.matches(container)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static final class Rule {
+        final String name;
+        final PathPattern pattern;
+        final Set<String> methods;
+        final BucketTable perIp;
+        final BucketTable perUser;
+        final Counter rejected;
+
+        Rule(RateLimitProperties.Rule config, PathPatternParser parser, MeterRegistry meterRegistry) {
+            this.name = config.getName() != null ? config.getName() : config.getPattern();
+            this.pattern = parser.parse(config.getPattern());
+            this.methods = config.getMethods().stream()
+                    .map(method -> method.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            this.perIp = config.getPerIp() != null ? new BucketTable(config.getPerIp()) : null;
+            this.perUser = config.getPerUser() != null ? new BucketTable(config.getPerUser()) : null;
+            this.rejected = Counter.builder("rate_limit.rejected")
+                    .description("Requests refused with 429 by the rate limiter")
+                    .tag("rule", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static final class BucketTable {
+        final double capacity;
+        final double tokensPerNano;
+        final Stripe[] stripes = new Stripe[STRIPES];
+
+        BucketTable(RateLimitProperties.Limit limit) {
+            this.capacity = limit.getCapacity();
+            this.tokensPerNano = (double) limit.getRefill() / TimeUnit.SECONDS.toNanos(limit.getPeriodSeconds());
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe();
+            }
+        }
+
+        // Returns 0 when a token was taken, otherwise nanoseconds until the next token
+        long tryAcquire(Object key, long now) {
+            Stripe stripe = stripeFor(key);
+            synchronized (stripe) {
+                Bucket bucket = refill(stripe, key, now);
+                long wait = waitNanos(bucket);
+                if (wait == 0) {
+                    bucket.tokens -= 1;
+                }
+                return wait;
+            }
+        }
+
+        // As tryAcquire, but takes a token from both buckets or from neither, so a request refused by one
+        // dimension does not use up the other. Callers always pass the per-IP table first, so the two
+        // stripe monitors are taken in the same order everywhere
+        static long tryAcquireBoth(BucketTable first, Object firstKey, BucketTable second, Object secondKey, long now) {
+            Stripe firstStripe = first.stripeFor(firstKey);
+            Stripe secondStripe = second.stripeFor(secondKey);
+            synchronized (firstStripe) {
+                synchronized (secondStripe) {
+                    Bucket firstBucket = first.refill(firstStripe, firstKey, now);
+                    Bucket secondBucket = second.refill(secondStripe, secondKey, now);
+                    long wait = Math.max(first.waitNanos(firstBucket), second.waitNanos(secondBucket));
+                    if (wait == 0) {
+                        firstBucket.tokens -= 1;
+                        secondBucket.tokens -= 1;
+                    }
+                    return wait;
+                }
+            }
+        }
+
+        private Stripe stripeFor(Object key) {
+            int hash = key.hashCode();
+            return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        }
+
+        // Caller holds the stripe's monitor
+        private Bucket refill(Stripe stripe, Object key, long now) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) * tokensPerNano);
+                bucket.updatedAt = now;
+            }
+            return bucket;
+        }
+
+        private long waitNanos(Bucket bucket) {
+            if (bucket.tokens >= 1) {
+                return 0;
+            }
+            return tokensPerNano > 0 ? (long) Math.ceil((1 - bucket.tokens) / tokensPerNano) : Long.MAX_VALUE / 2;
+        }
+
+        int evictIdle(long now, long idleNanos) {
+            int evicted = 0;
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    Iterator<Bucket> buckets = stripe.buckets.values().iterator();
+                    while (buckets.hasNext()) {
+                        Bucket bucket = buckets.next();
+                        long idle = now - bucket.updatedAt;
+                        // Only drop buckets that have refilled; recreating one starts it full again
+                        if (idle > idleNanos && bucket.tokens + idle * tokensPerNano >= capacity) {
+                            buckets.remove();
+                            evicted++;
+                        }
+                    }
+                }
+            }
+            return evicted;
+        }
+    }
+
+    private static final class Stripe {
+        final Map<Object, Bucket> buckets = new HashMap<>();
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.library.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.entity.User;
+import com.library.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * In-memory table of each user's current access-token epoch, used for revocation in claims-only
+ * authentication. A token is honoured only if its epoch claim equals the user's current value. Role
+ * changes and deactivation bump the epoch, which invalidates every earlier token at once. The
+ * durable counter is users.token_epoch. It is read once per user, usually from the L2 cache, and
+ * re-read after the TTL so a bump made on another instance is picked up.
+ */
+@Component
+public class TokenEpochs {
+
+    // Reported for unknown or inactive users, so no token can match
+    public static final int REVOKED = -1;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.epoch-cache.max-entries:100000}")
+    private long maxEntries;
+
+    @Value("${jwt.epoch-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Cache<Long, Integer> epochs;
+
+    @PostConstruct
+    void init() {
+        epochs = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public int current(Long userId) {
+        return epochs.get(userId, id -> userRepository.findById(id)
+                .filter(User::getIsActive)
+                .map(User::getTokenEpoch)
+                .orElse(REVOKED));
+    }
+
+    // Call with a managed user inside the transaction that changes its role or active flag
+    public void bump(User user) {
+        user.setTokenEpoch(user.getTokenEpoch() + 1);
+        Long userId = user.getId();
+        int epoch = Boolean.TRUE.equals(user.getIsActive()) ? user.getTokenEpoch() : REVOKED;
+        // Revoke on this instance straight away; publish the committed value afterwards
+        epochs.put(userId, REVOKED);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        epochs.put(userId, epoch);
+                    } else {
+                        epochs.invalidate(userId);
+                    }
+                }
+            });
+        } else {
+            epochs.put(userId, epoch);
+        }
+    }
+}
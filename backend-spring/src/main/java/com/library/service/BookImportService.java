@@ -0,0 +1,499 @@
+package com.library.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.library.entity.Book;
+import com.library.repository.BookRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streaming catalog import for CSV and JSON Lines. The request thread parses, validates and
+ * de-duplicates rows one at a time. Full batches go through a bounded queue to a writer thread,
+ * which commits each batch in its own transaction. A slow database therefore slows the upload
+ * instead of growing the heap. Progress counters are live, so an import can be polled while it runs.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportService.class);
+
+    private static final List<Row> END_OF_INPUT = List.of();
+
+    // How long a full queue is waited on before checking that the writer is still running
+    private static final long HAND_OFF_POLL_MS = 500;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("importTaskExecutor")
+    private ThreadPoolTaskExecutor importTaskExecutor;
+
+    @Value("${book-import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${book-import.queue-capacity:4}")
+    private int queueCapacity;
+
+    @Value("${book-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private final Map<String, ImportJob> recentJobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+            return size() > 20;
+        }
+    };
+
+    public enum Format {
+        CSV, JSONL;
+
+        public static Format resolve(String format, String contentType) {
+            // Form and multipart bodies are consumed by the servlet container before we can stream them
+            if (contentType != null && (contentType.startsWith("application/x-www-form-urlencoded")
+                    || contentType.startsWith("multipart/"))) {
+                throw new IllegalArgumentException("Send the file as the raw request body (text/csv or application/x-ndjson)");
+            }
+            String hint = format != null ? format : contentType != null ? contentType : "";
+            hint = hint.toLowerCase();
+            if (hint.contains("csv")) {
+                return CSV;
+            }
+            if (hint.contains("jsonl") || hint.contains("ndjson") || hint.contains("json")) {
+                return JSONL;
+            }
+            throw new IllegalArgumentException("Unsupported import format, use csv or jsonl");
+        }
+    }
+
+    public ImportJob importBooks(InputStream body, Format format) {
+        ImportJob job = new ImportJob(format, maxReportedErrors);
+        BlockingQueue<List<Row>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        // Throws TaskRejectedException when the maximum number of imports is already running
+        Future<?> writer = importTaskExecutor.submit(() -> writeBatches(queue, job));
+        synchronized (recentJobs) {
+            recentJobs.put(job.getId(), job);
+        }
+
+        try {
+            Set<String> knownIsbns = loadIsbns();
+            Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            RowSource source = format == Format.CSV ? new CsvRowSource(reader) : new JsonLinesRowSource(reader);
+
+            List<Row> batch = new ArrayList<>(batchSize);
+            Row row;
+            while ((row = source.next(job)) != null) {
+                if (!accept(row, knownIsbns, job)) {
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    handOff(queue, batch, writer);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                handOff(queue, batch, writer);
+            }
+            handOff(queue, END_OF_INPUT, writer);
+            writer.get();
+            job.finish(ImportJob.Status.COMPLETED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writer.cancel(true);
+            job.finish(ImportJob.Status.FAILED);
+        } catch (Exception e) {
+            log.warn("Import {} aborted: {}", job.getId(), e.getMessage());
+            writer.cancel(true);
+            job.addError(0, "Import aborted: " + e.getMessage());
+            job.finish(ImportJob.Status.FAILED);
+        }
+
+        log.info("Import {} finished: {} read, {} imported, {} duplicates, {} failed", job.getId(),
+                job.rowsRead.get(), job.imported.get(), job.duplicates.get(), job.failed.get());
+        return job;
+    }
+
+    public List<ImportJob> getRecentJobs() {
+        synchronized (recentJobs) {
+            return new ArrayList<>(recentJobs.values());
+        }
+    }
+
+    // A writer that died would never drain the queue, so waiting on it is bounded and re-checked
+    private void handOff(BlockingQueue<List<Row>> queue, List<Row> batch, Future<?> writer)
+            throws InterruptedException {
+        while (!queue.offer(batch, HAND_OFF_POLL_MS, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) {
+                try {
+                    writer.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Writer failed: " + rootMessage(e.getCause()), e.getCause());
+                } catch (CancellationException e) {
+                    // Reported below like a writer that returned early
+                }
+                throw new IllegalStateException("Writer stopped before the end of the input");
+            }
+        }
+    }
+
+    private boolean accept(Row row, Set<String> knownIsbns, ImportJob job) {
+        Book book = row.book;
+        if (book.getAvailableCopies() == null) {
+            book.setAvailableCopies(book.getTotalCopies());
+        }
+
+        Set<ConstraintViolation<Book>> violations = validator.validate(book);
+        if (!violations.isEmpty()) {
+            job.reject(row.number, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return false;
+        }
+
+        if (book.getIsbn() != null && !knownIsbns.add(book.getIsbn())) {
+            job.duplicates.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private void writeBatches(BlockingQueue<List<Row>> queue, ImportJob job) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            List<Row> batch;
+            while ((batch = queue.take()) != END_OF_INPUT) {
+                List<Book> books = batch.stream().map(row -> row.book).collect(Collectors.toList());
+                try {
+                    tx.executeWithoutResult(status -> bookRepository.saveAll(books));
+                    job.imported.addAndGet(books.size());
+                } catch (RuntimeException e) {
+                    // Isolate the offending rows instead of losing the whole batch
+                    for (Row row : batch) {
+                        try {
+                            row.book.setId(null);
+                            tx.executeWithoutResult(status -> bookRepository.save(row.book));
+                            job.imported.incrementAndGet();
+                        } catch (RuntimeException rowError) {
+                            job.reject(row.number, "Could not be saved: " + rootMessage(rowError));
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Set<String> loadIsbns() {
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        Set<String> isbns = new HashSet<>();
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<String> existing = bookRepository.streamAllIsbns()) {
+                existing.forEach(isbns::add);
+            }
+        });
+        return isbns;
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private static final class Row {
+
+        final long number;
+        final Book book;
+
+        Row(long number, Book book) {
+            this.number = number;
+            this.book = book;
+        }
+    }
+
+    private interface RowSource {
+        // Next parsable row, or null at end of input; unparsable rows are reported on the job and skipped
+        Row next(ImportJob job) throws IOException;
+    }
+
+    private final class JsonLinesRowSource implements RowSource {
+
+        private final BufferedReader reader;
+        private final ObjectReader bookReader = objectMapper.readerFor(Book.class);
+        private long lineNumber;
+
+        JsonLinesRowSource(Reader reader) {
+            this.reader = (BufferedReader) reader;
+        }
+
+        @Override
+        public Row next(ImportJob job) throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                job.rowsRead.incrementAndGet();
+                try {
+                    Book book = bookReader.readValue(line);
+                    book.setId(null);
+                    return new Row(lineNumber, book);
+                } catch (JsonProcessingException e) {
+                    job.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class CsvRowSource implements RowSource {
+
+        private final CsvReader csv;
+        private Map<String, Integer> columns;
+        private long recordNumber;
+
+        CsvRowSource(Reader reader) {
+            this.csv = new CsvReader(reader);
+        }
+
+        @Override
+        public Row next(ImportJob job) throws IOException {
+            if (columns == null) {
+                List<String> header = csv.next();
+                if (header == null) {
+                    return null;
+                }
+                columns = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    columns.put(header.get(i).trim().toLowerCase(), i);
+                }
+            }
+
+            List<String> fields;
+            while ((fields = csv.next()) != null) {
+                recordNumber++;
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                job.rowsRead.incrementAndGet();
+                try {
+                    return new Row(recordNumber, toBook(fields));
+                } catch (NumberFormatException e) {
+                    job.reject(recordNumber, "Invalid number: " + e.getMessage());
+                }
+            }
+            return null;
+        }
+
+        private Book toBook(List<String> fields) {
+            Book book = new Book();
+            book.setTitle(field(fields, "title"));
+            book.setAuthor(field(fields, "author"));
+            book.setIsbn(field(fields, "isbn"));
+            book.setGenre(field(fields, "genre"));
+            book.setPublishedYear(intField(fields, "publishedyear"));
+            book.setDescription(field(fields, "description"));
+            book.setCoverImage(field(fields, "coverimage"));
+            book.setTotalCopies(intField(fields, "totalcopies"));
+            book.setAvailableCopies(intField(fields, "availablecopies"));
+
+            String tags = field(fields, "tags");
+            if (tags != null) {
+                book.setTags(Arrays.stream(tags.split("[|;]"))
+                        .map(String::trim)
+                        .filter(tag -> !tag.isEmpty())
+                        .collect(Collectors.toSet()));
+            }
+
+            String shelf = field(fields, "shelf");
+            String section = field(fields, "section");
+            if (shelf != null || section != null) {
+                book.setLocation(new Book.Location(shelf, section));
+            }
+            return book;
+        }
+
+        private String field(List<String> fields, String name) {
+            Integer index = columns.get(name);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private Integer intField(List<String> fields, String name) {
+            String value = field(fields, name);
+            return value != null ? Integer.valueOf(value) : null;
+        }
+    }
+
+    // Minimal RFC 4180 reader: quoted fields may contain separators, doubled quotes and line breaks
+    static final class CsvReader {
+
+        private final Reader reader;
+        private boolean eof;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        List<String> next() throws IOException {
+            if (eof) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (peek != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+
+            eof = true;
+            if (!any) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    public static class ImportJob {
+
+        public enum Status {
+            RUNNING, COMPLETED, FAILED
+        }
+
+        private final String id = UUID.randomUUID().toString();
+        private final Format format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private volatile Status status = Status.RUNNING;
+        private volatile long durationMs;
+
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private volatile boolean errorsTruncated;
+        private final int maxErrors;
+
+        ImportJob(Format format, int maxErrors) {
+            this.format = format;
+            this.maxErrors = maxErrors;
+        }
+
+        void reject(long row, String message) {
+            failed.incrementAndGet();
+            addError(row, message);
+        }
+
+        synchronized void addError(long row, String message) {
+            if (errors.size() < maxErrors) {
+                errors.add(Map.of("row", row, "message", message != null ? message : "Unknown error"));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        void finish(Status status) {
+            this.durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            this.status = status;
+        }
+
+        public String getId() { return id; }
+        public Format getFormat() { return format; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public Status getStatus() { return status; }
+        public long getDurationMs() { return status == Status.RUNNING ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) : durationMs; }
+        public long getRowsRead() { return rowsRead.get(); }
+        public long getImported() { return imported.get(); }
+        public long getDuplicates() { return duplicates.get(); }
+        public long getFailed() { return failed.get(); }
+        public synchronized List<Map<String, Object>> getErrors() { return new ArrayList<>(errors); }
+        public boolean isErrorsTruncated() { return errorsTruncated; }
+    }
+}
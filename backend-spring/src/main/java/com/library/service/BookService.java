@@ -1,53 +1,164 @@
 package com.library.service;
 
+import com.library.dto.BookSummary;
+import com.library.dto.FieldSelection;
 import com.library.entity.Book;
 import com.library.entity.BorrowRecord;
 import com.library.entity.User;
 import com.library.repository.BookRepository;
 import com.library.repository.BorrowRecordRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class BookService {
 
+    private static final List<String> SUMMARY_COLUMNS = List.of("id", "title", "author", "isbn", "genre",
+            "publishedYear", "description", "coverImage", "availableCopies", "totalCopies");
+
     @Autowired
     private BookRepository bookRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private BorrowRecordRepository borrowRecordRepository;
 
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private WishlistNotificationService wishlistNotificationService;
+
+    @Transactional(readOnly = true)
     public Page<Book> getAllBooks(Pageable pageable) {
         return bookRepository.findByIsActive(true, pageable);
     }
 
-    public Page<Book> getAllBooks(String genre, Integer publishedYear, Pageable pageable) {
-        if (genre != null && publishedYear != null) {
-            return bookRepository.findByGenreIgnoreCaseAndPublishedYearAndIsActive(genre, publishedYear, true, pageable);
-        } else if (genre != null) {
-            return bookRepository.findByGenreIgnoreCaseAndIsActive(genre, true, pageable);
-        } else if (publishedYear != null) {
-            return bookRepository.findByPublishedYearAndIsActive(publishedYear, true, pageable);
-        } else {
-            return bookRepository.findByIsActive(true, pageable);
-        }
+    // Catalog cards read as a tuple of only the selected columns; description only when asked for
+    @Transactional(readOnly = true)
+    public Page<BookSummary> getBookSummaries(String genre, Integer publishedYear, FieldSelection fields, Pageable pageable) {
+        Specification<Book> filter = (book, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isTrue(book.get("isActive")));
+            if (genre != null) {
+                // upper() is the functional key part of idx_books_active_genre on MySQL (V2__access_path_indexes)
+                predicates.add(cb.equal(cb.upper(book.get("genre")), genre.toUpperCase(Locale.ROOT)));
+            }
+            if (publishedYear != null) {
+                predicates.add(cb.equal(book.get("publishedYear"), publishedYear));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        return findSummaries(filter, fields, pageable);
     }
 
-    public Page<Book> searchBooks(String query, String genre, String author, Integer yearFrom, Integer yearTo, Boolean available, Pageable pageable) {
-        if (genre != null || author != null || yearFrom != null || yearTo != null || available != null) {
-            return bookRepository.searchBooksWithAdvancedFilters(query, genre, author, yearFrom, yearTo, available, pageable);
-        } else {
-            return bookRepository.searchBooks(query, pageable);
+    // Same matching as BookRepository.searchBooksWithAdvancedFilters, with the projection narrowed like getBookSummaries
+    @Transactional(readOnly = true)
+    public Page<BookSummary> searchBookSummaries(String query, String genre, String author, Integer yearFrom, Integer yearTo,
+                                                 Boolean available, FieldSelection fields, Pageable pageable) {
+        Specification<Book> filter = (book, criteria, cb) -> {
+            String pattern = "%" + query.toLowerCase(Locale.ROOT) + "%";
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isTrue(book.get("isActive")));
+            predicates.add(cb.or(
+                    cb.like(cb.lower(book.get("title")), pattern),
+                    cb.like(cb.lower(book.get("author")), pattern),
+                    cb.like(cb.lower(book.get("description")), pattern)));
+            if (genre != null) {
+                predicates.add(cb.equal(cb.upper(book.get("genre")), genre.toUpperCase(Locale.ROOT)));
+            }
+            if (author != null) {
+                predicates.add(cb.like(cb.lower(book.get("author")), "%" + author.toLowerCase(Locale.ROOT) + "%"));
+            }
+            if (yearFrom != null) {
+                predicates.add(cb.greaterThanOrEqualTo(book.get("publishedYear"), yearFrom));
+            }
+            if (yearTo != null) {
+                predicates.add(cb.lessThanOrEqualTo(book.get("publishedYear"), yearTo));
+            }
+            if (available != null) {
+                predicates.add(available
+                        ? cb.greaterThan(book.get("availableCopies"), 0)
+                        : cb.equal(book.get("availableCopies"), 0));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        return findSummaries(filter, fields, pageable);
+    }
+
+    private Page<BookSummary> findSummaries(Specification<Book> filter, FieldSelection fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> select = cb.createTupleQuery();
+        Root<Book> book = select.from(Book.class);
+        List<String> columns = SUMMARY_COLUMNS.stream().filter(column -> selects(fields, column)).toList();
+        Set<String> read = Set.copyOf(columns);
+        select.multiselect(columns.stream().<Selection<?>>map(column -> book.get(column).alias(column)).toList());
+        select.where(filter.toPredicate(book, select, cb));
+        select.orderBy(QueryUtils.toOrders(pageable.getSort(), book, cb));
+
+        List<BookSummary> content = entityManager.createQuery(select)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultStream()
+                .map(row -> new BookSummary(row.get("id", Long.class),
+                        column(row, read, "title", String.class),
+                        column(row, read, "author", String.class),
+                        column(row, read, "isbn", String.class),
+                        column(row, read, "genre", String.class),
+                        column(row, read, "publishedYear", Integer.class),
+                        column(row, read, "description", String.class),
+                        column(row, read, "coverImage", String.class),
+                        column(row, read, "availableCopies", Integer.class),
+                        column(row, read, "totalCopies", Integer.class),
+                        fields))
+                .toList();
+
+        // The count is skipped when the page shows the total already, as for derived repository queries
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            CriteriaQuery<Long> count = cb.createQuery(Long.class);
+            Root<Book> counted = count.from(Book.class);
+            count.select(cb.count(counted)).where(filter.toPredicate(counted, count, cb));
+            return entityManager.createQuery(count).getSingleResult();
+        });
+    }
+
+    private static <T> T column(Tuple row, Set<String> read, String name, Class<T> type) {
+        return read.contains(name) ? row.get(name, type) : null;
+    }
+
+    // The default cards skip description (BookCard shows publishedYear); available is derived from availableCopies
+    private static boolean selects(FieldSelection fields, String column) {
+        if (fields.isDefault()) {
+            return !column.equals("description");
         }
+        return column.equals("id") || fields.includes(column)
+                || (column.equals("availableCopies") && fields.includes("available"));
     }
 
+    @Transactional(readOnly = true)
     public Optional<Book> getBookById(Long id) {
         return bookRepository.findByIdAndIsActive(id, true);
     }
@@ -144,6 +255,8 @@ public class BookService {
         book.borrowCopy();
         bookRepository.save(book);
 
+        recommendationService.recordBorrow(user.getId(), bookId);
+
         return borrowRecord;
     }
 
@@ -169,6 +282,11 @@ public class BookService {
         book.returnCopy();
         bookRepository.save(book);
 
+        // First copy back on the shelf: let patrons who wishlisted it know
+        if (book.getAvailableCopies() == 1) {
+            wishlistNotificationService.notifyBookAvailable(book.getId(), book.getTitle());
+        }
+
         return borrowRecord;
     }
 
@@ -180,11 +298,13 @@ public class BookService {
         return "Book reserved successfully (feature coming soon)";
     }
 
+    @Transactional(readOnly = true)
     public long getTotalBookCount() {
         return bookRepository.countActiveBooks();
     }
 
     // Admin methods
+    @Transactional(readOnly = true)
     public Page<Book> getAllBooksForAdmin(boolean includeInactive, Pageable pageable) {
         if (includeInactive) {
             return bookRepository.findAll(pageable);
@@ -0,0 +1,158 @@
+package com.library.service;
+
+import com.library.entity.BookBorrowSummary;
+import com.library.entity.BorrowRecord;
+import com.library.entity.UserBorrowSummary;
+import com.library.repository.BookBorrowSummaryRepository;
+import com.library.repository.BorrowRecordArchiveRepository;
+import com.library.repository.BorrowRecordRepository;
+import com.library.repository.UserBorrowSummaryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves closed borrow records (returned, with no outstanding fine) older than a configurable age
+ * from borrow_records into borrow_records_archive. Each chunk is its own short transaction: copy the
+ * rows, add their counts to the per-user and per-book summaries, then delete them from the hot
+ * table. Active-loan queries therefore only scan open and recent rows.
+ */
+@Service
+public class BorrowArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowArchiveService.class);
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Autowired
+    private BorrowRecordArchiveRepository archiveRepository;
+
+    @Autowired
+    private UserBorrowSummaryRepository userSummaryRepository;
+
+    @Autowired
+    private BookBorrowSummaryRepository bookSummaryRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${borrow-archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${borrow-archive.min-age-days:365}")
+    private int minAgeDays;
+
+    @Value("${borrow-archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${borrow-archive.pause-ms:100}")
+    private long pauseMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${borrow-archive.cron:0 30 2 * * *}")
+    public void archiveScheduled() {
+        if (enabled) {
+            archive(minAgeDays);
+        }
+    }
+
+    // Returns the number of records moved, or -1 if another run is already in progress
+    public long archive(int olderThanDays) {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(olderThanDays);
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            long moved = 0;
+            long start = System.currentTimeMillis();
+
+            while (true) {
+                Integer chunk = tx.execute(status -> archiveChunk(cutoff));
+                if (chunk == null || chunk == 0) {
+                    break;
+                }
+                moved += chunk;
+                if (chunk < chunkSize) {
+                    break;
+                }
+                // Leave room for foreground traffic (and replication) between chunks
+                Thread.sleep(pauseMs);
+            }
+
+            if (moved > 0) {
+                log.info("Archived {} borrow records returned before {} in {} ms", moved, cutoff,
+                        System.currentTimeMillis() - start);
+            }
+            return moved;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = borrowRecordRepository.findArchivableIds(
+                BorrowRecord.Status.RETURNED, cutoff, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> byUser = borrowRecordRepository.summarizeByUser(ids);
+        Map<Long, UserBorrowSummary> userSummaries = userSummaryRepository
+                .findAllById(byUser.stream().map(row -> (Long) row[0]).collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(UserBorrowSummary::getUserId, Function.identity()));
+        for (Object[] row : byUser) {
+            UserBorrowSummary summary = userSummaries.get((Long) row[0]);
+            if (summary == null) {
+                summary = new UserBorrowSummary((Long) row[0]);
+                summary.add((Long) row[1], (BigDecimal) row[2]);
+                entityManager.persist(summary);
+            } else {
+                summary.add((Long) row[1], (BigDecimal) row[2]);
+            }
+        }
+
+        List<Object[]> byBook = borrowRecordRepository.summarizeByBook(ids);
+        Map<Long, BookBorrowSummary> bookSummaries = bookSummaryRepository
+                .findAllById(byBook.stream().map(row -> (Long) row[0]).collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(BookBorrowSummary::getBookId, Function.identity()));
+        for (Object[] row : byBook) {
+            BookBorrowSummary summary = bookSummaries.get((Long) row[0]);
+            if (summary == null) {
+                summary = new BookBorrowSummary((Long) row[0]);
+                summary.add((Long) row[1]);
+                entityManager.persist(summary);
+            } else {
+                summary.add((Long) row[1]);
+            }
+        }
+
+        archiveRepository.copyFromBorrowRecords(ids, LocalDateTime.now());
+        borrowRecordRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+}
@@ -1,16 +1,25 @@
 package com.library.service;
 
+import com.library.dto.BorrowRecordView;
 import com.library.entity.BorrowRecord;
 import com.library.entity.User;
+import com.library.entity.UserBorrowSummary;
+import com.library.repository.BorrowRecordArchiveRepository;
 import com.library.repository.BorrowRecordRepository;
+import com.library.repository.UserBorrowSummaryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -22,21 +31,61 @@ public class BorrowRecordService {
     @Autowired
     private BorrowRecordRepository borrowRecordRepository;
 
-    public Page<BorrowRecord> getUserBorrowHistory(User user, BorrowRecord.Status status, Pageable pageable) {
+    @Autowired
+    private BorrowRecordArchiveRepository archiveRepository;
+
+    @Autowired
+    private UserBorrowSummaryRepository userSummaryRepository;
+
+    @Autowired
+    private ParallelQueryExecutor parallelQueryExecutor;
+
+    // Reads across hot and archived records; archived rows are all RETURNED, so other statuses stay hot-only
+    @Transactional(readOnly = true)
+    public Page<BorrowRecordView> getUserBorrowHistory(User user, BorrowRecord.Status status, Pageable pageable) {
+        long archived = status == null || status == BorrowRecord.Status.RETURNED ? getArchivedBorrows(user) : 0;
+        if (archived == 0) {
+            return findHotHistory(user, status, pageable);
+        }
+
+        // Both sources are ordered by borrowedAt; merge their heads up to the end of the requested page
+        int window = (int) pageable.getOffset() + pageable.getPageSize();
+        Page<BorrowRecordView> hot = findHotHistory(user, status, PageRequest.of(0, window));
+        List<BorrowRecordView> cold = archiveRepository.findViewsByUserId(user.getId(), PageRequest.of(0, window));
+
+        List<BorrowRecordView> merged = new ArrayList<>(window);
+        int h = 0, c = 0;
+        List<BorrowRecordView> hotRows = hot.getContent();
+        while (merged.size() < window && (h < hotRows.size() || c < cold.size())) {
+            boolean takeHot = c >= cold.size() ||
+                    (h < hotRows.size() && !hotRows.get(h).getBorrowedAt().isBefore(cold.get(c).getBorrowedAt()));
+            merged.add(takeHot ? hotRows.get(h++) : cold.get(c++));
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        return new PageImpl<>(merged.subList(from, merged.size()), pageable, hot.getTotalElements() + archived);
+    }
+
+    private Page<BorrowRecordView> findHotHistory(User user, BorrowRecord.Status status, Pageable pageable) {
         if (status != null) {
-            return borrowRecordRepository.findByUserAndStatusOrderByBorrowedAtDesc(user, status, pageable);
+            return borrowRecordRepository.findViewsByUserAndStatus(user, status, pageable);
         } else {
-            return borrowRecordRepository.findByUserOrderByBorrowedAtDesc(user, pageable);
+            return borrowRecordRepository.findViewsByUser(user, pageable);
         }
     }
 
-    public List<BorrowRecord> getUserActiveBorrows(User user) {
+    private long getArchivedBorrows(User user) {
+        return userSummaryRepository.findById(user.getId()).map(UserBorrowSummary::getArchivedBorrows).orElse(0L);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BorrowRecordView> getUserActiveBorrows(User user) {
         List<BorrowRecord.Status> activeStatuses = List.of(
             BorrowRecord.Status.BORROWED, 
             BorrowRecord.Status.OVERDUE, 
             BorrowRecord.Status.RENEWED
         );
-        return borrowRecordRepository.findByUserAndStatusIn(user, activeStatuses);
+        return borrowRecordRepository.findViewsByUserAndStatusIn(user, activeStatuses);
     }
 
     public BorrowRecord renewBook(Long borrowId, User user) {
@@ -60,34 +109,58 @@ public class BorrowRecordService {
         return borrowRecordRepository.save(borrowRecord);
     }
 
+    // Runs outside a transaction: each statistic gets its own read-only transaction on the query pool
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> getUserStats(User user) {
-        long totalBorrows = borrowRecordRepository.countByUser(user);
-        long activeBorrows = borrowRecordRepository.countByUserAndStatus(user, BorrowRecord.Status.BORROWED) +
-                           borrowRecordRepository.countByUserAndStatus(user, BorrowRecord.Status.RENEWED);
-        long overdueBorrows = borrowRecordRepository.countByUserAndStatus(user, BorrowRecord.Status.OVERDUE);
-        long returnedBooks = borrowRecordRepository.countByUserAndStatus(user, BorrowRecord.Status.RETURNED);
-        BigDecimal totalFines = borrowRecordRepository.getTotalFinesByUser(user);
-
-        // Get favorite genres
-        List<Object[]> genreStats = borrowRecordRepository.findUserFavoriteGenres(user, PageRequest.of(0, 5));
-        List<Map<String, Object>> favoriteGenres = genreStats.stream()
-                .map(row -> Map.of(
-                    "_id", row[0] != null ? row[0] : "Unknown",
-                    "count", row[1]
+        ParallelQueryExecutor.Results results = parallelQueryExecutor.batch()
+                .add("totalBorrows", () -> borrowRecordRepository.countByUser(user), 0L)
+                .add("activeBorrows", () -> borrowRecordRepository.countByUserAndStatus(user, BorrowRecord.Status.BORROWED) +
+                        borrowRecordRepository.countByUserAndStatus(user, BorrowRecord.Status.RENEWED), 0L)
+                .add("overdueBorrows", () -> borrowRecordRepository.countByUserAndStatus(user, BorrowRecord.Status.OVERDUE), 0L)
+                .add("returnedBooks", () -> borrowRecordRepository.countByUserAndStatus(user, BorrowRecord.Status.RETURNED), 0L)
+                .add("totalFines", () -> {
+                    BigDecimal totalFines = borrowRecordRepository.getTotalFinesByUser(user);
+                    return totalFines != null ? totalFines : BigDecimal.ZERO;
+                }, BigDecimal.ZERO)
+                .add("favoriteGenres", () -> getFavoriteGenres(user), List.<Map<String, Object>>of())
+                .add("archived", () -> userSummaryRepository.findById(user.getId()).orElse(null), null)
+                .execute();
+
+        Map<String, Object> stats = new LinkedHashMap<>(results.getValues());
+        // Archived records are all returned and settled; their totals live in the summary row
+        UserBorrowSummary archived = (UserBorrowSummary) stats.remove("archived");
+        if (archived != null) {
+            stats.put("totalBorrows", (Long) stats.get("totalBorrows") + archived.getArchivedBorrows());
+            stats.put("returnedBooks", (Long) stats.get("returnedBooks") + archived.getArchivedBorrows());
+            stats.put("totalFines", ((BigDecimal) stats.get("totalFines")).add(archived.getArchivedFines()));
+        }
+        stats.put("timings", results.getTimings());
+        if (results.isPartial()) {
+            stats.put("partial", results.getDegraded());
+        }
+        return stats;
+    }
+
+    private List<Map<String, Object>> getFavoriteGenres(User user) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : borrowRecordRepository.findUserFavoriteGenres(user, Pageable.unpaged())) {
+            counts.merge((String) row[0], (Long) row[1], Long::sum);
+        }
+        for (Object[] row : archiveRepository.countGenresByUserId(user.getId())) {
+            counts.merge((String) row[0], (Long) row[1], Long::sum);
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(5)
+                .map(entry -> Map.<String, Object>of(
+                    "_id", entry.getKey(),
+                    "count", entry.getValue()
                 ))
                 .collect(Collectors.toList());
-
-        return Map.of(
-            "totalBorrows", totalBorrows,
-            "activeBorrows", activeBorrows,
-            "overdueBorrows", overdueBorrows,
-            "returnedBooks", returnedBooks,
-            "totalFines", totalFines != null ? totalFines : BigDecimal.ZERO,
-            "favoriteGenres", favoriteGenres
-        );
     }
 
     // Admin methods
+    @Transactional(readOnly = true)
     public long getActiveBorrowingsCount() {
         List<BorrowRecord.Status> activeStatuses = List.of(
             BorrowRecord.Status.BORROWED, 
@@ -96,36 +169,44 @@ public class BorrowRecordService {
         return borrowRecordRepository.countByStatusIn(activeStatuses);
     }
 
+    @Transactional(readOnly = true)
     public long getOverdueBorrowingsCount() {
         return borrowRecordRepository.countByStatus(BorrowRecord.Status.OVERDUE);
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal getTotalFines() {
         BigDecimal total = borrowRecordRepository.getTotalFines();
-        return total != null ? total : BigDecimal.ZERO;
+        BigDecimal archived = userSummaryRepository.getTotalArchivedFines();
+        return (total != null ? total : BigDecimal.ZERO).add(archived != null ? archived : BigDecimal.ZERO);
     }
 
-    public Page<BorrowRecord> getRecentBorrows(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public List<BorrowRecordView> getRecentBorrows(int limit) {
         List<BorrowRecord.Status> activeStatuses = List.of(
             BorrowRecord.Status.BORROWED, 
             BorrowRecord.Status.OVERDUE, 
             BorrowRecord.Status.RENEWED
         );
-        return borrowRecordRepository.findByStatusInOrderByBorrowedAtDesc(activeStatuses, pageable);
+        return borrowRecordRepository.findRecentViews(activeStatuses, PageRequest.of(0, limit));
     }
 
+    // Archived borrows count towards popularity; see BorrowRecordRepository.findMostBorrowedBooks
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getPopularBooks() {
-        Page<Object[]> popularBooks = borrowRecordRepository.findMostBorrowedBooks(PageRequest.of(0, 5));
-        
-        return popularBooks.getContent().stream()
-                .map(row -> Map.of(
-                    "book", Map.of(
-                        "id", row[0],
-                        "title", row[1],
-                        "author", row[2]
-                    ),
-                    "borrowCount", row[3]
-                ))
+        return borrowRecordRepository.findMostBorrowedBooks(PageRequest.of(0, 5)).stream()
+                .map(row -> popularBook(((Number) row[0]).longValue(), row[1], row[2], ((Number) row[3]).longValue()))
                 .collect(Collectors.toList());
     }
+
+    private static Map<String, Object> popularBook(Object id, Object title, Object author, Object borrowCount) {
+        return Map.of(
+            "book", Map.of(
+                "id", id,
+                "title", title,
+                "author", author
+            ),
+            "borrowCount", borrowCount
+        );
+    }
 }
@@ -0,0 +1,136 @@
+package com.library.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.dto.FieldSelection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fully serialized responses for the first catalog pages, the bulk of anonymous traffic. Each entry
+ * holds the JSON bytes and a gzipped copy, built once. A hit is written to the response as is, with
+ * no query, entity mapping or Jackson pass. Keys hold the normalized request parameters, including the
+ * canonical ?fields= selection, plus the catalog ETag (see CatalogVersion). When the catalog changes,
+ * new requests use new keys and the old entries are dropped, so a page built from older data is never
+ * served under a newer version.
+ */
+@Component
+public class CatalogPageCache {
+
+    public record Key(String version, int page, int limit, String genre, Integer publishedYear,
+                      String sortBy, String sortOrder, String fields) {
+
+        public static Key of(String version, int page, int limit, String genre, Integer publishedYear,
+                             String sortBy, String sortOrder, FieldSelection fields) {
+            // genre is the filter the query runs with (see BookController); matching is case-insensitive,
+            // so differently cased requests share an entry
+            String normalizedGenre = genre == null ? null : genre.toLowerCase(Locale.ROOT);
+            String normalizedOrder = "desc".equalsIgnoreCase(sortOrder) ? "desc" : "asc";
+            return new Key(version, page, limit, normalizedGenre, publishedYear, sortBy, normalizedOrder, fields.toString());
+        }
+    }
+
+    public record Entry(byte[] json, byte[] gzip) {}
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${catalog-page-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog-page-cache.max-page:5}")
+    private int maxPage;
+
+    @Value("${catalog-page-cache.max-limit:50}")
+    private int maxLimit;
+
+    @Value("${catalog-page-cache.max-bytes:16777216}")
+    private long maxBytes;
+
+    private Cache<Key, Entry> pages;
+
+    // Catalog ETag the current entries were built under; entries of older versions are dropped on change
+    private volatile String version;
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        pages = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> entry.json().length + entry.gzip().length)
+                .build();
+        hits = Counter.builder("catalog.page.cache").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("catalog.page.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("catalog.page.cache.entries", pages, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    public boolean isCacheable(int page, int limit) {
+        return enabled && page >= 1 && page <= maxPage && limit >= 1 && limit <= maxLimit;
+    }
+
+    // Returns the cached entry for the key, rendering and storing it on a miss
+    public Entry get(Key key, Supplier<Object> body) {
+        String current = catalogVersion.catalog().etag();
+        if (!current.equals(version)) {
+            synchronized (this) {
+                if (!current.equals(version)) {
+                    version = current;
+                    pages.asMap().keySet().removeIf(stale -> !stale.version().equals(current));
+                }
+            }
+        }
+        if (!key.version().equals(current)) {
+            // The catalog moved on while this request was in flight; serve it, but do not keep it
+            misses.increment();
+            return render(body.get());
+        }
+        Entry entry = pages.getIfPresent(key);
+        if (entry != null) {
+            hits.increment();
+            return entry;
+        }
+        // Not pages.get(key, loader): the query and render would run inside Caffeine's compute and block
+        // other keys in the same bin. Concurrent misses on one key may each render; the first stored wins
+        misses.increment();
+        Entry rendered = render(body.get());
+        Entry existing = pages.asMap().putIfAbsent(key, rendered);
+        return existing != null ? existing : rendered;
+    }
+
+    private Entry render(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new Entry(json, compressed.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog page", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
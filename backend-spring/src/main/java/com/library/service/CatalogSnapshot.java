@@ -0,0 +1,332 @@
+package com.library.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.dto.BookDetail;
+import com.library.dto.BookSummary;
+import com.library.entity.Book;
+import com.library.repository.BookRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Immutable in-memory copy of the active catalog. It is the data source for the read-only catalog API
+ * (CatalogController). Each book is held with its detail view, its pre-serialized summary line and its
+ * validators, so browsing, search and detail are answered without a query or a servlet thread parked
+ * on JDBC. The copy is tagged with the catalog ETag it was loaded under (see CatalogVersion). When that
+ * ETag moves because of book commits on this instance, only those books are re-read and patched into a
+ * new copy. A write seen from another instance, or more local commits than CatalogVersion logs, reloads
+ * the whole copy, as does full-reload-interval-ms. The new copy is swapped in in the background;
+ * requests keep reading the previous one until then.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog-snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshot.class);
+
+    public enum SortKey {
+        TITLE(Comparator.comparing(Entry::title)),
+        AUTHOR(Comparator.comparing(Entry::author)),
+        GENRE(Comparator.comparing(Entry::genre, Comparator.nullsFirst(Comparator.naturalOrder()))),
+        PUBLISHED_YEAR(Comparator.comparing(Entry::publishedYear, Comparator.nullsFirst(Comparator.naturalOrder()))),
+        AVAILABLE_COPIES(Comparator.comparing(Entry::availableCopies)),
+        CREATED_AT(Comparator.comparing(Entry::createdAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        // Ties fall back to the id so a page boundary never splits them differently between requests
+        private final Comparator<Entry> order;
+
+        SortKey(Comparator<Entry> order) {
+            this.order = order.thenComparing(Entry::id);
+        }
+
+        // Accepts the entity property names used by /api/books as well as the column names the frontend sends
+        public static SortKey resolve(String sortBy) {
+            String key = sortBy == null ? "" : sortBy.replace("_", "").toLowerCase(Locale.ROOT);
+            for (SortKey value : values()) {
+                if (value.name().replace("_", "").toLowerCase(Locale.ROOT).equals(key)) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sort field, use title, author, genre, publishedYear, availableCopies or createdAt");
+        }
+    }
+
+    // One active book; summaryLine is its BookSummary JSON followed by a newline, ready to stream
+    public record Entry(BookDetail detail, byte[] summaryLine, String searchText, LocalDateTime createdAt,
+                        CatalogVersion.Stamp stamp) {
+
+        Long id() {
+            return detail.id();
+        }
+
+        String title() {
+            return detail.title();
+        }
+
+        String author() {
+            return detail.author();
+        }
+
+        String genre() {
+            return detail.genre();
+        }
+
+        Integer publishedYear() {
+            return detail.publishedYear();
+        }
+
+        Integer availableCopies() {
+            return detail.availableCopies();
+        }
+    }
+
+    public record Selection(List<Entry> entries, long total) {}
+
+    public static final class Contents {
+
+        private final CatalogVersion.Stamp version;
+        private final List<Entry> books;
+        private final Map<Long, Entry> byId;
+        // Sorted orders are built the first time a request asks for them
+        private final Map<SortKey, List<Entry>> sorted = new ConcurrentHashMap<>();
+
+        Contents(CatalogVersion.Stamp version, List<Entry> books) {
+            this.version = version;
+            this.books = books;
+            this.byId = new HashMap<>(books.size() * 4 / 3 + 1);
+            books.forEach(entry -> byId.put(entry.id(), entry));
+        }
+
+        // Catalog validators the contents were loaded under
+        public CatalogVersion.Stamp version() {
+            return version;
+        }
+
+        public int size() {
+            return books.size();
+        }
+
+        public Entry book(Long id) {
+            return byId.get(id);
+        }
+
+        // A copy with the changed books replaced by their current entries; those missing from current are gone
+        Contents patch(CatalogVersion.Stamp version, Set<Long> changed, Map<Long, Entry> current) {
+            List<Entry> patched = new ArrayList<>(books.size() + current.size());
+            for (Entry entry : books) {
+                if (!changed.contains(entry.id())) {
+                    patched.add(entry);
+                }
+            }
+            patched.addAll(current.values());
+            patched.sort(Comparator.comparing(Entry::id));
+            return new Contents(version, patched);
+        }
+
+        public Selection browse(String genre, Integer publishedYear, SortKey sortKey, boolean descending,
+                                int page, int limit) {
+            Predicate<Entry> filter = entry -> true;
+            if (genre != null) {
+                filter = filter.and(entry -> genre.equalsIgnoreCase(entry.genre()));
+            }
+            if (publishedYear != null) {
+                filter = filter.and(entry -> publishedYear.equals(entry.publishedYear()));
+            }
+            return select(filter, sortKey, descending, page, limit);
+        }
+
+        // Same matching as BookRepository.searchBooksWithAdvancedFilters: substring of title, author or description
+        public Selection search(String query, String genre, String author, Integer yearFrom, Integer yearTo,
+                                Boolean available, SortKey sortKey, boolean descending, int page, int limit) {
+            String needle = query.toLowerCase(Locale.ROOT);
+            Predicate<Entry> filter = entry -> entry.searchText().contains(needle);
+            if (genre != null) {
+                filter = filter.and(entry -> genre.equalsIgnoreCase(entry.genre()));
+            }
+            if (author != null) {
+                String authorNeedle = author.toLowerCase(Locale.ROOT);
+                filter = filter.and(entry -> entry.author().toLowerCase(Locale.ROOT).contains(authorNeedle));
+            }
+            if (yearFrom != null) {
+                filter = filter.and(entry -> entry.publishedYear() != null && entry.publishedYear() >= yearFrom);
+            }
+            if (yearTo != null) {
+                filter = filter.and(entry -> entry.publishedYear() != null && entry.publishedYear() <= yearTo);
+            }
+            if (available != null) {
+                filter = filter.and(entry -> (entry.availableCopies() > 0) == available);
+            }
+            return select(filter, sortKey, descending, page, limit);
+        }
+
+        private Selection select(Predicate<Entry> filter, SortKey sortKey, boolean descending, int page, int limit) {
+            List<Entry> order = sorted.computeIfAbsent(sortKey, key -> books.stream().sorted(key.order).toList());
+            long offset = (long) (page - 1) * limit;
+            List<Entry> selected = new ArrayList<>(Math.min(limit, 64));
+            long total = 0;
+            int size = order.size();
+            for (int i = 0; i < size; i++) {
+                // Descending walks the ascending order backwards, which also puts nulls last as the databases do
+                Entry entry = order.get(descending ? size - 1 - i : i);
+                if (filter.test(entry)) {
+                    if (total >= offset && selected.size() < limit) {
+                        selected.add(entry);
+                    }
+                    total++;
+                }
+            }
+            return new Selection(selected, total);
+        }
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${catalog-snapshot.full-reload-interval-ms:300000}")
+    private long fullReloadIntervalMs;
+
+    private volatile Contents contents;
+
+    // CatalogVersion counters the contents are current with, and when they were last loaded in full
+    private long loadedChanges;
+    private long loadedExternalChanges;
+    private long fullLoadAt;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("catalog.snapshot.books", this, snapshot -> snapshot.contents == null ? 0 : snapshot.contents.size())
+                .register(meterRegistry);
+        refresh();
+    }
+
+    public Contents current() {
+        return contents;
+    }
+
+    // Cheap when nothing changed: the catalog stamp is held in memory by CatalogVersion
+    @Scheduled(fixedDelayString = "${catalog-snapshot.refresh-interval-ms:1000}",
+            initialDelayString = "${catalog-snapshot.refresh-interval-ms:1000}")
+    public synchronized void refresh() {
+        // Counters and validators are taken before the load, so a concurrent change can only make them older than the data
+        long changes = catalogVersion.changes();
+        long externalChanges = catalogVersion.externalChanges();
+        CatalogVersion.Stamp version = catalogVersion.catalog();
+        Contents previous = contents;
+        if (previous != null && previous.version().etag().equals(version.etag())) {
+            return;
+        }
+        long started = System.nanoTime();
+        Set<Long> changed = null;
+        if (previous != null && externalChanges == loadedExternalChanges
+                && started - fullLoadAt < TimeUnit.MILLISECONDS.toNanos(fullReloadIntervalMs)) {
+            changed = catalogVersion.changedSince(loadedChanges);
+        }
+        if (changed == null || changed.isEmpty()) {
+            // First load, a write on another instance, or local changes the log no longer covers
+            contents = new Contents(version, load(changes));
+            fullLoadAt = started;
+            log.debug("Loaded catalog snapshot {}: {} books in {} ms", version.etag(), contents.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } else {
+            contents = previous.patch(version, changed, loadChanged(changed, changes));
+            log.debug("Patched catalog snapshot {}: {} changed books in {} ms", version.etag(), changed.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        loadedChanges = changes;
+        loadedExternalChanges = externalChanges;
+    }
+
+    private List<Entry> load(long changes) {
+        List<Entry> entries = new ArrayList<>();
+        primaryTx().executeWithoutResult(status -> {
+            try (Stream<Book> books = bookRepository.streamActiveBooks()) {
+                books.forEach(book -> {
+                    entries.add(toEntry(book, changes));
+                    // Nothing is written back, so the persistence context does not need to keep the row
+                    entityManager.detach(book);
+                });
+            }
+        });
+        return entries;
+    }
+
+    // Current entries of the given books that are still active
+    private Map<Long, Entry> loadChanged(Set<Long> ids, long changes) {
+        Map<Long, Entry> entries = new HashMap<>();
+        primaryTx().executeWithoutResult(status -> {
+            for (Book book : bookRepository.findAllById(ids)) {
+                if (Boolean.TRUE.equals(book.getIsActive())) {
+                    entries.put(book.getId(), toEntry(book, changes));
+                }
+                entityManager.detach(book);
+            }
+        });
+        return entries;
+    }
+
+    // Not read-only: with replica.enabled that would route to the replica, which can still miss commits the
+    // catalog stamp already covers, and the rows read would be kept under the new ETag until the next change
+    private TransactionTemplate primaryTx() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private Entry toEntry(Book book, long changes) {
+        BookDetail detail = BookDetail.of(book);
+        byte[] summary;
+        try {
+            summary = objectMapper.writeValueAsBytes(BookSummary.of(book));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize book " + book.getId(), e);
+        }
+        byte[] line = new byte[summary.length + 1];
+        System.arraycopy(summary, 0, line, 0, summary.length);
+        line[summary.length] = '\n';
+        // NUL separators keep a query from matching across the end of one field and the start of the next
+        String searchText = Stream.of(book.getTitle(), book.getAuthor(), book.getDescription())
+                .map(field -> field == null ? "" : field.toLowerCase(Locale.ROOT))
+                .reduce((a, b) -> a + '\0' + b)
+                .orElse("");
+        return new Entry(detail, line, searchText, book.getCreatedAt(), catalogVersion.book(book, changes));
+    }
+}
@@ -0,0 +1,197 @@
+package com.library.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.entity.Book;
+import com.library.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validators for conditional GETs on the catalog. Listings share one catalog stamp, derived from the
+ * book count and the latest books.updated_at, so every instance computes the same ETag for the same
+ * data. The stamp is held in memory. A book write committed on this instance marks it stale, and it
+ * is re-read on the next request. A scheduled refresh picks up writes made on other instances. Book
+ * detail validators come from the book's own updatedAt and are remembered per id, so a matching
+ * If-None-Match can be answered before the book is loaded. The ids of recent local book commits are
+ * kept in a bounded log, so a consumer such as CatalogSnapshot can re-read just those books.
+ */
+@Component
+public class CatalogVersion {
+
+    public record Stamp(String etag, long lastModified) {}
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Value("${catalog-version.refresh-interval-ms:5000}")
+    private long refreshIntervalMs;
+
+    @Value("${catalog-version.book-stamps.max-entries:10000}")
+    private long bookStampEntries;
+
+    @Value("${catalog-version.change-log.max-entries:10000}")
+    private int changeLogEntries;
+
+    private volatile Stamp catalog;
+    private volatile boolean stale = true;
+
+    // Bumped after every local book commit; a detail stamp computed across a bump is not remembered
+    private final AtomicLong changes = new AtomicLong();
+
+    // Book ids of the latest local commits, oldest first; the last one is change number `changes`
+    private final ArrayDeque<Long> changeLog = new ArrayDeque<>();
+
+    // Bumped when the catalog stamp moves without a local commit, i.e. after a write on another instance
+    private final AtomicLong externalChanges = new AtomicLong();
+    private long changesAtLoad;
+
+    private Cache<Long, Stamp> bookStamps;
+
+    @PostConstruct
+    void init() {
+        // Expiry bounds how long a change made on another instance can go unnoticed here
+        bookStamps = Caffeine.newBuilder()
+                .maximumSize(bookStampEntries)
+                .expireAfterWrite(Duration.ofMillis(refreshIntervalMs))
+                .build();
+    }
+
+    public Stamp catalog() {
+        if (stale) {
+            synchronized (this) {
+                if (stale) {
+                    // Cleared first, so a commit landing during the read marks it stale again
+                    stale = false;
+                    long changesBefore = changes.get();
+                    Stamp loaded;
+                    try {
+                        loaded = loadCatalog();
+                    } catch (RuntimeException e) {
+                        stale = true;
+                        throw e;
+                    }
+                    if (catalog != null && !catalog.etag().equals(loaded.etag()) && changesBefore == changesAtLoad) {
+                        externalChanges.incrementAndGet();
+                    }
+                    catalog = loaded;
+                    changesAtLoad = changesBefore;
+                }
+            }
+        }
+        return catalog;
+    }
+
+    // Remembered validators for a book, or null if it has to be loaded
+    public Stamp knownBook(Long id) {
+        return bookStamps.getIfPresent(id);
+    }
+
+    // Read the change count before loading the book, then pass it here with the loaded book
+    public Stamp book(Book book, long changesBeforeLoad) {
+        LocalDateTime modified = book.getUpdatedAt() != null ? book.getUpdatedAt() : book.getCreatedAt();
+        LocalDateTime truncated = modified != null ? modified.truncatedTo(ChronoUnit.MICROS) : LocalDateTime.MIN;
+        Stamp stamp = new Stamp("W/\"b" + book.getId() + "-" + toMicros(truncated) + "\"", toMillis(truncated));
+        if (changes.get() == changesBeforeLoad) {
+            bookStamps.put(book.getId(), stamp);
+        }
+        return stamp;
+    }
+
+    public long changes() {
+        return changes.get();
+    }
+
+    public long externalChanges() {
+        return externalChanges.get();
+    }
+
+    // Ids of the books committed on this instance after change number `since` (see changes()), or null
+    // when the log no longer reaches back that far
+    public Set<Long> changedSince(long since) {
+        synchronized (changeLog) {
+            long missing = changes.get() - since;
+            if (missing > changeLog.size()) {
+                return null;
+            }
+            Set<Long> ids = new HashSet<>();
+            Iterator<Long> latestFirst = changeLog.descendingIterator();
+            for (long i = 0; i < missing; i++) {
+                ids.add(latestFirst.next());
+            }
+            return ids;
+        }
+    }
+
+    // Called for every book insert, update and delete (see BookChangeListener)
+    public void bookChanged(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markChanged(id);
+                }
+            });
+        } else {
+            markChanged(id);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog-version.refresh-interval-ms:5000}")
+    public void refresh() {
+        stale = true;
+    }
+
+    private void markChanged(Long id) {
+        synchronized (changeLog) {
+            changes.incrementAndGet();
+            if (id == null) {
+                // Consumers behind this change cannot tell which book it was
+                changeLog.clear();
+            } else {
+                changeLog.addLast(id);
+                if (changeLog.size() > changeLogEntries) {
+                    changeLog.removeFirst();
+                }
+            }
+        }
+        if (id != null) {
+            bookStamps.invalidate(id);
+        }
+        stale = true;
+    }
+
+    private Stamp loadCatalog() {
+        BookRepository.CatalogStamp stamp = bookRepository.findCatalogStamp();
+        LocalDateTime lastUpdated = stamp.getLastUpdated() != null
+                ? stamp.getLastUpdated().truncatedTo(ChronoUnit.MICROS)
+                : LocalDateTime.MIN;
+        return new Stamp("W/\"c" + stamp.getBookCount() + "-" + toMicros(lastUpdated) + "\"", toMillis(lastUpdated));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.equals(LocalDateTime.MIN) ? -1 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String toMicros(LocalDateTime time) {
+        if (time.equals(LocalDateTime.MIN)) {
+            return "0";
+        }
+        return Long.toHexString(ChronoUnit.MICROS.between(LocalDateTime.of(2000, 1, 1, 0, 0), time));
+    }
+}
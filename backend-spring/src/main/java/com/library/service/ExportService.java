@@ -0,0 +1,214 @@
+package com.library.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.repository.BookRepository;
+import com.library.repository.BorrowRecordArchiveRepository;
+import com.library.repository.BorrowRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables to a client for offline reporting. Rows come from forward-only cursors over
+ * flat scalar projections, so nothing is attached to the persistence context, and each row is
+ * written to the output as soon as it is read. Heap use does not depend on table size.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private static final String[] BOOK_COLUMNS = {
+            "id", "title", "author", "isbn", "genre", "publishedYear", "description", "coverImage",
+            "totalCopies", "availableCopies", "shelf", "section", "isActive", "createdAt", "updatedAt", "tags"
+    };
+
+    private static final String[] BORROW_COLUMNS = {
+            "id", "userId", "userEmail", "bookId", "bookIsbn", "bookTitle", "borrowedAt", "dueAt",
+            "returnedAt", "renewedCount", "status", "fineAmount", "finePaid", "notes"
+    };
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Autowired
+    private BorrowRecordArchiveRepository borrowRecordArchiveRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        public static Format resolve(String format) {
+            for (Format candidate : values()) {
+                if (candidate.name().equalsIgnoreCase(format) || candidate.extension.equalsIgnoreCase(format)) {
+                    return candidate;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format, use ndjson or csv");
+        }
+    }
+
+    public long exportBooks(Format format, OutputStream out) throws IOException {
+        return export("books", BOOK_COLUMNS, bookRepository::streamExportRows, format, out);
+    }
+
+    public long exportBorrows(Format format, OutputStream out) throws IOException {
+        // Hot rows first, then the archive; flatMap opens the second cursor only after the first is drained
+        Supplier<Stream<Object[]>> rows = () -> Stream.<Supplier<Stream<Object[]>>>of(
+                borrowRecordRepository::streamExportRows,
+                borrowRecordArchiveRepository::streamExportRows).flatMap(Supplier::get);
+        return export("borrow_records", BORROW_COLUMNS, rows, format, out);
+    }
+
+    private long export(String table, String[] columns, Supplier<Stream<Object[]>> rows,
+                        Format format, OutputStream out) throws IOException {
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        long start = System.currentTimeMillis();
+        try (RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new JsonRowWriter(out)) {
+            writer.header(columns);
+            Long written = readOnlyTx.execute(status -> {
+                long count = 0;
+                try (Stream<Object[]> stream = rows.get()) {
+                    for (Object[] row : (Iterable<Object[]>) stream::iterator) {
+                        writer.row(columns, row);
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+            log.info("Exported {} {} rows as {} in {} ms", written, table, format, System.currentTimeMillis() - start);
+            return written != null ? written : 0;
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download
+            log.warn("Export of {} aborted: {}", table, e.getCause().getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private interface RowWriter extends AutoCloseable {
+
+        void header(String[] columns) throws IOException;
+
+        void row(String[] columns, Object[] values) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private final class JsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        JsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.createGenerator(out);
+            // Rows are newline-terminated below; drop Jackson's default space between root values
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void header(String[] columns) {
+        }
+
+        @Override
+        public void row(String[] columns, Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                generator.writeObject(values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void header(String[] columns) throws IOException {
+            write(columns);
+        }
+
+        @Override
+        public void row(String[] columns, Object[] values) throws IOException {
+            write(values);
+        }
+
+        private void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] instanceof Collection<?> collection) {
+                    // Multi-valued columns (tags) are '|' separated within the cell
+                    writer.write(escape(collection.stream().map(String::valueOf).collect(Collectors.joining("|"))));
+                } else if (values[i] != null) {
+                    writer.write(escape(values[i].toString()));
+                }
+            }
+            writer.write('\n');
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
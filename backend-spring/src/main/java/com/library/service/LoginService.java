@@ -0,0 +1,77 @@
+package com.library.service;
+
+import com.library.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Password check for logins. The user row is read on the calling thread. The one BCrypt comparison
+ * per attempt runs on the bounded passwordHashTaskExecutor, so request threads are released while it
+ * runs. When the pool and its queue are full, the attempt is rejected with TaskRejectedException
+ * rather than queued without limit. Publishes auth.password.queue.depth, auth.password.hash (check
+ * latency) and auth.login.rejected.
+ */
+@Service
+public class LoginService {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("passwordHashTaskExecutor")
+    private ThreadPoolTaskExecutor passwordHashTaskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer hashTimer;
+    private Counter rejected;
+
+    @PostConstruct
+    void registerMetrics() {
+        hashTimer = Timer.builder("auth.password.hash")
+                .description("BCrypt password check latency")
+                .register(meterRegistry);
+        rejected = Counter.builder("auth.login.rejected")
+                .description("Login attempts shed because the password hashing pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", passwordHashTaskExecutor,
+                        executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", passwordHashTaskExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    // Completes with the user, or exceptionally with UsernameNotFoundException / BadCredentialsException
+    public CompletableFuture<User> authenticate(String email, String password) {
+        User user = userService.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        try {
+            return passwordHashTaskExecutor.submitCompletable(() -> {
+                if (!hashTimer.record(() -> passwordEncoder.matches(password, user.getPassword()))) {
+                    throw new BadCredentialsException("Invalid password");
+                }
+                return user;
+            });
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+}
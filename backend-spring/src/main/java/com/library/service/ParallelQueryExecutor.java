@@ -0,0 +1,164 @@
+package com.library.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent read queries ("widgets") concurrently, each on a pooled thread inside its own
+ * read-only transaction. Every widget has a fallback value that is used when it fails, is rejected
+ * by the pool or misses the shared deadline, so callers always get a complete (possibly partial) result.
+ * Each widget's transaction times out with the deadline, which also stops its statements in the database.
+ */
+@Component
+public class ParallelQueryExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelQueryExecutor.class);
+
+    @Autowired
+    @Qualifier("queryTaskExecutor")
+    private Executor queryTaskExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${query-executor.widget-timeout-ms:2000}")
+    private long widgetTimeoutMs;
+
+    public Batch batch() {
+        return new Batch();
+    }
+
+    public class Batch {
+
+        private final Map<String, Widget<?>> widgets = new LinkedHashMap<>();
+
+        public <T> Batch add(String name, Supplier<T> query, T fallback) {
+            widgets.put(name, new Widget<>(query, fallback));
+            return this;
+        }
+
+        public Results execute() {
+            TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+            readOnlyTx.setReadOnly(true);
+            readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            // Spring applies the remaining transaction time to each JPA/JDBC statement as its query timeout,
+            // so a widget that misses the deadline has its query cancelled instead of holding its thread and
+            // connection until the database finishes. Transaction timeouts are whole seconds, rounded up.
+            readOnlyTx.setTimeout((int) Math.max(1, (widgetTimeoutMs + 999) / 1000));
+
+            long start = System.nanoTime();
+            widgets.values().forEach(widget -> widget.submit(readOnlyTx));
+
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(widgetTimeoutMs);
+            Results results = new Results();
+            widgets.forEach((name, widget) -> widget.collect(name, deadline, results));
+
+            log.debug("Executed {} widgets in {} ms (timings: {}, degraded: {})", widgets.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), results.timings, results.degraded);
+            return results;
+        }
+    }
+
+    private class Widget<T> {
+
+        private final Supplier<T> query;
+        private final T fallback;
+        private CompletableFuture<T> future;
+        private volatile long elapsedNanos = -1;
+        private long submittedAt;
+
+        Widget(Supplier<T> query, T fallback) {
+            this.query = query;
+            this.fallback = fallback;
+        }
+
+        void submit(TransactionTemplate readOnlyTx) {
+            submittedAt = System.nanoTime();
+            try {
+                future = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return readOnlyTx.execute(status -> query.get());
+                    } finally {
+                        elapsedNanos = System.nanoTime() - submittedAt;
+                    }
+                }, queryTaskExecutor);
+            } catch (RejectedExecutionException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+        }
+
+        void collect(String name, long deadline, Results results) {
+            T value;
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                value = future.get(remaining, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Widget '{}' timed out after {} ms, using fallback", name, widgetTimeoutMs);
+                future.cancel(true);
+                value = fallback;
+                results.degraded.add(name);
+            } catch (ExecutionException | RejectedExecutionException e) {
+                log.warn("Widget '{}' failed, using fallback: {}", name, e.getMessage());
+                value = fallback;
+                results.degraded.add(name);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                value = fallback;
+                results.degraded.add(name);
+            }
+
+            long nanos = elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - submittedAt;
+            results.values.put(name, value);
+            results.timings.put(name, TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    public static class Results {
+
+        private final Map<String, Object> values = new LinkedHashMap<>();
+        private final Map<String, Long> timings = new LinkedHashMap<>();
+        private final List<String> degraded = new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        public <T> T get(String name) {
+            return (T) values.get(name);
+        }
+
+        public Map<String, Object> getValues() {
+            return values;
+        }
+
+        // Per-widget wall time in milliseconds, in insertion order
+        public Map<String, Long> getTimings() {
+            return timings;
+        }
+
+        // Widgets that were answered with their fallback value
+        public List<String> getDegraded() {
+            return degraded;
+        }
+
+        public boolean isPartial() {
+            return !degraded.isEmpty();
+        }
+    }
+}
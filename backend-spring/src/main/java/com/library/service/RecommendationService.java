@@ -0,0 +1,426 @@
+package com.library.service;
+
+import com.library.entity.Book;
+import com.library.repository.BookRepository;
+import com.library.repository.BorrowRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * "Readers also borrowed" engine. Keeps a sparse item-item co-borrow matrix (one primitive
+ * open-addressing row per book) and serves precomputed top-N neighbor lists from an immutable
+ * snapshot. The matrix is rebuilt in parallel from borrow_records on startup and on a schedule,
+ * and new borrows are folded in incrementally after their transaction commits.
+ */
+@Service
+public class RecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
+
+    private static final int[] NO_BOOKS = new int[0];
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("queryTaskExecutor")
+    private Executor queryTaskExecutor;
+
+    @Value("${recommendations.top-n:20}")
+    private int topN;
+
+    // Committed (userId, bookId) borrows waiting to be folded into the matrix
+    private final ConcurrentLinkedQueue<long[]> pendingBorrows = new ConcurrentLinkedQueue<>();
+
+    // Mutable matrix state, guarded by "this"
+    // Set from the start of a rebuild's read until its swap; while set, queued borrows are left for the new matrix
+    private boolean rebuilding;
+    private Map<Long, Integer> bookIndex = new HashMap<>();
+    private long[] bookIds = new long[0];
+    private int[] borrowerCounts = new int[0];
+    private IntIntHashMap[] coBorrows = new IntIntHashMap[0];
+    private Map<Long, int[]> userBooks = new HashMap<>();
+    private final BitSet dirty = new BitSet();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public List<Map<String, Object>> getAlsoBorrowed(Long bookId, int limit) {
+        Snapshot current = snapshot;
+        Integer index = current.index.get(bookId);
+        if (index == null || current.neighborIds[index] == null) {
+            return List.of();
+        }
+
+        long[] neighborIds = current.neighborIds[index];
+        float[] scores = current.scores[index];
+        List<Long> ids = new ArrayList<>(neighborIds.length);
+        for (long id : neighborIds) {
+            ids.add(id);
+        }
+
+        Map<Long, Book> books = bookRepository.findAllById(ids).stream()
+                .filter(Book::getIsActive)
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        List<Map<String, Object>> recommendations = new ArrayList<>();
+        for (int i = 0; i < neighborIds.length && recommendations.size() < limit; i++) {
+            Book book = books.get(neighborIds[i]);
+            if (book != null) {
+                recommendations.add(Map.of("book", book, "score", scores[i]));
+            }
+        }
+        return recommendations;
+    }
+
+    // Queues a borrow for the next incremental refresh once the surrounding transaction commits
+    public void recordBorrow(Long userId, Long bookId) {
+        long[] event = {userId, bookId};
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pendingBorrows.add(event);
+                }
+            });
+        } else {
+            pendingBorrows.add(event);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        queryTaskExecutor.execute(this::rebuild);
+    }
+
+    @Scheduled(cron = "${recommendations.rebuild-cron:0 0 3 * * *}")
+    public void rebuild() {
+        synchronized (this) {
+            if (rebuilding) {
+                return;
+            }
+            rebuilding = true;
+        }
+        try {
+            long start = System.nanoTime();
+            Map<Long, Integer> index = new HashMap<>();
+            long[][] ids = {new long[64]};
+            Map<Long, int[]> baskets = loadBaskets(index, ids);
+
+            int n = index.size();
+            int[] borrowers = new int[n];
+            for (int[] items : baskets.values()) {
+                for (int item : items) {
+                    borrowers[item]++;
+                }
+            }
+
+            IntIntHashMap[] rows = new IntIntHashMap[n];
+            for (int i = 0; i < n; i++) {
+                rows[i] = new IntIntHashMap();
+            }
+
+            // Each worker owns the rows where (item % parts == part), so counting needs no locks
+            List<int[]> allBaskets = new ArrayList<>(baskets.values());
+            int parts = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+            IntStream.range(0, parts).parallel().forEach(part -> {
+                for (int[] items : allBaskets) {
+                    for (int a : items) {
+                        if (a % parts != part) {
+                            continue;
+                        }
+                        for (int b : items) {
+                            if (b != a) {
+                                rows[a].increment(b);
+                            }
+                        }
+                    }
+                }
+            });
+
+            long[] finalIds = Arrays.copyOf(ids[0], n);
+            long[][] neighborIds = new long[n][];
+            float[][] scores = new float[n][];
+            IntStream.range(0, n).parallel().forEach(a -> computeTopN(a, rows, borrowers, finalIds, neighborIds, scores));
+
+            synchronized (this) {
+                bookIndex = index;
+                bookIds = finalIds;
+                borrowerCounts = borrowers;
+                coBorrows = rows;
+                userBooks = baskets;
+                dirty.clear();
+                snapshot = new Snapshot(Map.copyOf(index), neighborIds, scores);
+                rebuilding = false;
+            }
+            log.info("Rebuilt co-borrow matrix for {} books and {} borrowers in {} ms", n, baskets.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            synchronized (this) {
+                rebuilding = false;
+            }
+        }
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (pendingBorrows.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            // Checked under the same lock as the rebuild's swap: a borrow polled into the old matrix after the
+            // rebuild began reading would be dropped when the new matrix is installed. Borrows left queued are
+            // applied to the new matrix afterwards, which is idempotent for those the rebuild already read.
+            if (rebuilding) {
+                return;
+            }
+            long[] event;
+            while ((event = pendingBorrows.poll()) != null) {
+                applyBorrow(event[0], event[1]);
+            }
+            if (dirty.isEmpty()) {
+                return;
+            }
+
+            int n = bookIds.length;
+            Snapshot current = snapshot;
+            long[][] neighborIds = Arrays.copyOf(current.neighborIds, n);
+            float[][] scores = Arrays.copyOf(current.scores, n);
+            dirty.stream().forEach(a -> computeTopN(a, coBorrows, borrowerCounts, bookIds, neighborIds, scores));
+            dirty.clear();
+
+            Map<Long, Integer> index = current.index.size() == bookIndex.size() ? current.index : Map.copyOf(bookIndex);
+            snapshot = new Snapshot(index, neighborIds, scores);
+        }
+    }
+
+    private Map<Long, int[]> loadBaskets(Map<Long, Integer> index, long[][] ids) {
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        Map<Long, int[]> baskets = new HashMap<>();
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<Object[]> pairs = borrowRecordRepository.streamUserBookPairs()) {
+                long[] currentUser = {-1};
+                int[][] buffer = {new int[16]};
+                int[] size = {0};
+                pairs.forEach(row -> {
+                    long userId = (Long) row[0];
+                    long bookId = (Long) row[1];
+                    if (userId != currentUser[0]) {
+                        if (size[0] > 0) {
+                            baskets.put(currentUser[0], sortedCopy(buffer[0], size[0]));
+                        }
+                        currentUser[0] = userId;
+                        size[0] = 0;
+                    }
+                    Integer item = index.get(bookId);
+                    if (item == null) {
+                        item = index.size();
+                        index.put(bookId, item);
+                        if (item == ids[0].length) {
+                            ids[0] = Arrays.copyOf(ids[0], item * 2);
+                        }
+                        ids[0][item] = bookId;
+                    }
+                    if (size[0] == buffer[0].length) {
+                        buffer[0] = Arrays.copyOf(buffer[0], size[0] * 2);
+                    }
+                    buffer[0][size[0]++] = item;
+                });
+                if (size[0] > 0) {
+                    baskets.put(currentUser[0], sortedCopy(buffer[0], size[0]));
+                }
+            }
+        });
+        return baskets;
+    }
+
+    private void applyBorrow(long userId, long bookId) {
+        int a = indexOf(bookId);
+        int[] items = userBooks.getOrDefault(userId, NO_BOOKS);
+        int position = Arrays.binarySearch(items, a);
+        if (position >= 0) {
+            return; // repeat borrow of the same title adds no co-occurrence
+        }
+
+        borrowerCounts[a]++;
+        for (int b : items) {
+            coBorrows[a].increment(b);
+            coBorrows[b].increment(a);
+            dirty.set(b);
+        }
+        dirty.set(a);
+
+        int insertAt = -position - 1;
+        int[] updated = new int[items.length + 1];
+        System.arraycopy(items, 0, updated, 0, insertAt);
+        updated[insertAt] = a;
+        System.arraycopy(items, insertAt, updated, insertAt + 1, items.length - insertAt);
+        userBooks.put(userId, updated);
+    }
+
+    private int indexOf(long bookId) {
+        Integer existing = bookIndex.get(bookId);
+        if (existing != null) {
+            return existing;
+        }
+        int item = bookIds.length;
+        bookIndex.put(bookId, item);
+        bookIds = Arrays.copyOf(bookIds, item + 1);
+        bookIds[item] = bookId;
+        borrowerCounts = Arrays.copyOf(borrowerCounts, item + 1);
+        coBorrows = Arrays.copyOf(coBorrows, item + 1);
+        coBorrows[item] = new IntIntHashMap();
+        return item;
+    }
+
+    // Cosine similarity over borrower sets: co(a,b) / sqrt(|a| * |b|), keeping the best topN
+    private void computeTopN(int a, IntIntHashMap[] rows, int[] borrowers, long[] ids,
+                             long[][] neighborIds, float[][] scores) {
+        IntIntHashMap row = rows[a];
+        int capacity = Math.min(topN, row.size());
+        int[] best = new int[capacity];
+        float[] bestScores = new float[capacity];
+        int count = 0;
+
+        for (int slot = 0; slot < row.keys.length; slot++) {
+            int b = row.keys[slot];
+            if (b == IntIntHashMap.EMPTY) {
+                continue;
+            }
+            float score = (float) (row.values[slot] / Math.sqrt((double) borrowers[a] * borrowers[b]));
+            if (count == capacity && score <= bestScores[count - 1]) {
+                continue;
+            }
+            int i = count < capacity ? count++ : count - 1;
+            while (i > 0 && bestScores[i - 1] < score) {
+                best[i] = best[i - 1];
+                bestScores[i] = bestScores[i - 1];
+                i--;
+            }
+            best[i] = b;
+            bestScores[i] = score;
+        }
+
+        long[] resultIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            resultIds[i] = ids[best[i]];
+        }
+        neighborIds[a] = resultIds;
+        scores[a] = Arrays.copyOf(bestScores, count);
+    }
+
+    private static int[] sortedCopy(int[] buffer, int size) {
+        int[] items = Arrays.copyOf(buffer, size);
+        Arrays.sort(items);
+        return items;
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), new long[0][], new float[0][]);
+
+        final Map<Long, Integer> index;
+        final long[][] neighborIds;
+        final float[][] scores;
+
+        Snapshot(Map<Long, Integer> index, long[][] neighborIds, float[][] scores) {
+            this.index = index;
+            this.neighborIds = neighborIds;
+            this.scores = scores;
+        }
+    }
+
+    // Open-addressing int -> int counter map backed by two primitive arrays
+    static final class IntIntHashMap {
+
+        static final int EMPTY = -1;
+
+        int[] keys;
+        int[] values;
+        private int size;
+
+        IntIntHashMap() {
+            keys = new int[8];
+            values = new int[8];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        int size() {
+            return size;
+        }
+
+        void increment(int key) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                size++;
+            }
+            values[slot]++;
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            Arrays.fill(keys, EMPTY);
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = mix(oldKeys[i]) & mask;
+                    while (keys[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.library.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.entity.RefreshToken;
+import com.library.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Store for issued refresh tokens, kept apart from the User entity so user loads never touch it.
+ * Only the SHA-256 hash of a token is persisted, as the primary key, so a lookup is a single
+ * primary-key read. A bounded in-memory cache sits in front of the table. Each user keeps at most
+ * max-per-user tokens; issuing one more evicts the least recently used. Expired rows are purged in
+ * batches by a scheduled job.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpirationMs;
+
+    @Value("${refresh-tokens.max-per-user:5}")
+    private int maxPerUser;
+
+    @Value("${refresh-tokens.purge-batch-size:500}")
+    private int purgeBatchSize;
+
+    @Value("${refresh-tokens.touch-interval-ms:300000}")
+    private long touchIntervalMs;
+
+    @Value("${refresh-tokens.cache.max-entries:10000}")
+    private long cacheMaxEntries;
+
+    @Value("${refresh-tokens.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    private Cache<String, CachedToken> cache;
+
+    // What the front cache needs to answer a lookup without the table
+    private static final class CachedToken {
+        final Long userId;
+        final LocalDateTime expiresAt;
+        volatile LocalDateTime lastUsedAt;
+
+        CachedToken(RefreshToken token) {
+            this.userId = token.getUserId();
+            this.expiresAt = token.getExpiresAt();
+            this.lastUsedAt = token.getLastUsedAt();
+        }
+    }
+
+    @PostConstruct
+    void initCache() {
+        // The TTL bounds how long a token revoked on another instance can still be honoured here
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
+
+    public void store(Long userId, String token) {
+        String hash = hash(token);
+        RefreshToken stored = refreshTokenRepository.findById(hash).orElse(null);
+        if (stored == null) {
+            stored = refreshTokenRepository.save(new RefreshToken(hash, userId,
+                    LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs))));
+        } else {
+            // Same subject and second produce the same token; count it as a fresh use
+            stored.touch();
+        }
+
+        List<String> hashes = refreshTokenRepository.findHashesByUserIdMostRecentFirst(userId);
+        if (hashes.size() > maxPerUser) {
+            List<String> evicted = hashes.subList(maxPerUser, hashes.size());
+            refreshTokenRepository.deleteByTokenHashIn(evicted);
+            invalidateAfterCommit(List.copyOf(evicted));
+        }
+
+        CachedToken cached = new CachedToken(stored);
+        afterCommit(() -> cache.put(hash, cached));
+    }
+
+    public boolean isValid(Long userId, String token) {
+        String hash = hash(token);
+        CachedToken cached = cache.getIfPresent(hash);
+        if (cached == null) {
+            RefreshToken stored = refreshTokenRepository.findById(hash).orElse(null);
+            if (stored == null) {
+                return false;
+            }
+            cached = new CachedToken(stored);
+            cache.put(hash, cached);
+        }
+        if (!cached.userId.equals(userId) || cached.expiresAt.isBefore(LocalDateTime.now())) {
+            return false;
+        }
+
+        // Keep the LRU order roughly current without writing on every refresh
+        LocalDateTime now = LocalDateTime.now();
+        if (cached.lastUsedAt.plus(Duration.ofMillis(touchIntervalMs)).isBefore(now)) {
+            cached.lastUsedAt = now;
+            refreshTokenRepository.findById(hash).ifPresent(RefreshToken::touch);
+        }
+        return true;
+    }
+
+    public void revoke(Long userId, String token) {
+        String hash = hash(token);
+        // Only the owner can revoke a token
+        if (refreshTokenRepository.deleteByTokenHashAndUserId(hash, userId) > 0) {
+            invalidateAfterCommit(List.of(hash));
+        }
+    }
+
+    public void revokeAll(Long userId) {
+        List<String> hashes = refreshTokenRepository.findHashesByUserId(userId);
+        if (!hashes.isEmpty()) {
+            refreshTokenRepository.deleteByTokenHashIn(hashes);
+            invalidateAfterCommit(hashes);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${refresh-tokens.purge-interval-ms:3600000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void purgeExpired() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long purged = 0;
+        while (true) {
+            Integer deleted = tx.execute(status -> {
+                List<String> expired = refreshTokenRepository.findExpiredHashes(
+                        LocalDateTime.now(), PageRequest.of(0, purgeBatchSize));
+                if (expired.isEmpty()) {
+                    return 0;
+                }
+                refreshTokenRepository.deleteByTokenHashIn(expired);
+                cache.invalidateAll(expired);
+                return expired.size();
+            });
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            purged += deleted;
+            if (deleted < purgeBatchSize) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private void invalidateAfterCommit(List<String> hashes) {
+        // Drop now so this instance stops honouring them, and again after commit in case a concurrent
+        // lookup re-cached the rows before the delete became visible
+        cache.invalidateAll(hashes);
+        afterCommit(() -> cache.invalidateAll(hashes));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
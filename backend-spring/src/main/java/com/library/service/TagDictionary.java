@@ -0,0 +1,124 @@
+package com.library.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared in-memory dictionary for book tags. Each distinct tag name is stored once in the tags table
+ * under a small integer id. A book keeps only a packed array of those ids (4 bytes each) in
+ * books.tag_ids, so a page of books loads its tags from one column, with no join. Ids are append-only.
+ * A name that is not yet known is inserted in its own short transaction. An id that is not yet known
+ * (for example, one added by another instance) triggers a reload of the table. Neither holds a lock:
+ * callers usually hold a pooled connection already, and waiting on one another while the insert takes a
+ * second one could drain the pool. Both steps are idempotent, so concurrent callers just repeat them.
+ */
+@Component
+public class TagDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(TagDictionary.class);
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTx;
+
+    @Autowired
+    public TagDictionary(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Own transaction, never read-only: runs on the primary even while a replica-routed read is open,
+        // and a new tag stays registered even if the caller's transaction rolls back
+        this.writeTx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.writeTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public byte[] encode(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return EMPTY;
+        }
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                ids.add(idFor(name.trim()));
+            }
+        }
+        ByteBuffer packed = ByteBuffer.allocate(ids.size() * Integer.BYTES);
+        ids.forEach(packed::putInt);
+        return packed.array();
+    }
+
+    public Set<String> decode(byte[] packed) {
+        Set<String> names = new LinkedHashSet<>();
+        if (packed == null) {
+            return names;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(packed);
+        while (buffer.remaining() >= Integer.BYTES) {
+            int id = buffer.getInt();
+            String name = namesById.get(id);
+            if (name == null) {
+                reload();
+                name = namesById.get(id);
+            }
+            if (name != null) {
+                names.add(name);
+            } else {
+                log.warn("Unknown tag id {} ignored", id);
+            }
+        }
+        return names;
+    }
+
+    public int size() {
+        return namesById.size();
+    }
+
+    private int idFor(String name) {
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+        // Not computeIfAbsent: that would block other names in the same bin for the length of the insert
+        id = writeTx.execute(status -> insertOrFind(name));
+        register(id, name);
+        return id;
+    }
+
+    private Integer insertOrFind(String name) {
+        try {
+            jdbcTemplate.update("INSERT INTO tags (name) VALUES (?)", name);
+        } catch (DuplicateKeyException e) {
+            // Registered concurrently, by this instance or another
+        }
+        return jdbcTemplate.queryForObject("SELECT id FROM tags WHERE name = ?", Integer.class, name);
+    }
+
+    // Reads through the caller's transaction when there is one, so it needs no second connection
+    private void reload() {
+        jdbcTemplate.query("SELECT id, name FROM tags", rs -> {
+            register(rs.getInt(1), rs.getString(2));
+        });
+    }
+
+    private void register(int id, String name) {
+        idsByName.put(name, id);
+        namesById.put(id, name);
+    }
+}
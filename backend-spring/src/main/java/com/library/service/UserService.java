@@ -2,6 +2,8 @@ package com.library.service;
 
 import com.library.entity.User;
 import com.library.repository.UserRepository;
+import com.library.security.PrincipalCache;
+import com.library.security.TokenEpochs;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -10,7 +12,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
 import java.util.Optional;
 
 @Service
@@ -23,6 +24,15 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenEpochs tokenEpochs;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         return userRepository.findByEmailAndIsActive(email, true)
@@ -39,7 +49,6 @@ public class UserService implements UserDetailsService {
         user.setEmail(email);
         user.setPassword(passwordEncoder.encode(password));
         user.setRole(User.Role.USER);
-        user.setRefreshTokens(new HashSet<>());
 
         return userRepository.save(user);
     }
@@ -54,7 +63,6 @@ public class UserService implements UserDetailsService {
         user.setEmail(email);
         user.setPassword(passwordEncoder.encode(password));
         user.setRole(User.Role.ADMIN);
-        user.setRefreshTokens(new HashSet<>());
 
         return userRepository.save(user);
     }
@@ -67,43 +75,35 @@ public class UserService implements UserDetailsService {
         return userRepository.findById(id);
     }
 
+    // Admin edits (role, active flag) take effect on the user's next request; older access tokens stop working
     public User updateUser(User user) {
-        return userRepository.save(user);
+        tokenEpochs.bump(user);
+        User saved = userRepository.save(user);
+        principalCache.invalidate(saved);
+        return saved;
     }
 
     public void addRefreshToken(User user, String refreshToken) {
-        if (user.getRefreshTokens() == null) {
-            user.setRefreshTokens(new HashSet<>());
-        }
-        
-        // Clean up old tokens (keep only last 5)
-        if (user.getRefreshTokens().size() >= 5) {
-            user.getRefreshTokens().clear();
-        }
-        
-        user.getRefreshTokens().add(refreshToken);
-        userRepository.save(user);
+        refreshTokenService.store(user.getId(), refreshToken);
     }
 
     public void removeRefreshToken(User user, String refreshToken) {
-        if (user.getRefreshTokens() != null) {
-            user.getRefreshTokens().remove(refreshToken);
-            userRepository.save(user);
-        }
+        refreshTokenService.revoke(user.getId(), refreshToken);
     }
 
     public void removeAllRefreshTokens(User user) {
-        if (user.getRefreshTokens() != null) {
-            user.getRefreshTokens().clear();
-            userRepository.save(user);
-        }
+        refreshTokenService.revokeAll(user.getId());
     }
 
     public boolean hasValidRefreshToken(User user, String refreshToken) {
-        return user.getRefreshTokens() != null && user.getRefreshTokens().contains(refreshToken);
+        return refreshTokenService.isValid(user.getId(), refreshToken);
     }
 
-    public User updateProfile(User user, String name, String email) {
+    public User updateProfile(User principal, String name, String email) {
+        // The principal may be a claims-only or cached snapshot; apply the change to the stored row
+        User user = userRepository.findById(principal.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
         if (name != null && !name.trim().isEmpty()) {
             user.setName(name.trim());
         }
@@ -115,7 +115,9 @@ public class UserService implements UserDetailsService {
             user.setEmail(email.trim());
         }
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalCache.invalidate(saved);
+        return saved;
     }
 
     public void deactivateUser(Long userId) {
@@ -123,8 +125,10 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         user.setIsActive(false);
-        user.getRefreshTokens().clear();
+        tokenEpochs.bump(user);
         userRepository.save(user);
+        refreshTokenService.revokeAll(userId);
+        principalCache.invalidate(user);
     }
 
     public long getTotalUserCount() {
@@ -0,0 +1,202 @@
+package com.library.service;
+
+import com.library.entity.Notification;
+import com.library.entity.User;
+import com.library.repository.NotificationRepository;
+import com.library.repository.WishlistRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Tells patrons when a book on their wishlist becomes available again. Watchers are looked up in an
+ * in-memory bookId -> userIds index, and the fan-out runs on a background pool after the return
+ * commits. Notifications are written to the local outbox in batches, and a user who still has an
+ * unread notice for the book is skipped. Each user is also capped at a fixed number of notices per window.
+ */
+@Service
+public class WishlistNotificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(WishlistNotificationService.class);
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("notificationTaskExecutor")
+    private Executor notificationTaskExecutor;
+
+    @Value("${notifications.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notifications.per-user-limit:20}")
+    private int perUserLimit;
+
+    @Value("${notifications.rate-window-ms:3600000}")
+    private long rateWindowMs;
+
+    private final Map<Long, Set<Long>> watchersByBook = new ConcurrentHashMap<>();
+    private final Set<Long> fanOutsInFlight = ConcurrentHashMap.newKeySet();
+    // userId -> {windowStart, sentInWindow}
+    private final Map<Long, long[]> rateWindows = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<Object[]> pairs = wishlistRepository.streamBookUserPairs()) {
+                pairs.forEach(row -> addWatcher((Long) row[0], (Long) row[1]));
+            }
+        });
+        log.info("Loaded wishlist index for {} books", watchersByBook.size());
+    }
+
+    public void watch(Long bookId, Long userId) {
+        afterCommit(() -> addWatcher(bookId, userId));
+    }
+
+    public void unwatch(Long bookId, Long userId) {
+        afterCommit(() -> watchersByBook.computeIfPresent(bookId, (id, users) -> {
+            users.remove(userId);
+            return users.isEmpty() ? null : users;
+        }));
+    }
+
+    // Called from the return path; the actual fan-out never runs on the request thread
+    public void notifyBookAvailable(Long bookId, String title) {
+        if (!watchersByBook.containsKey(bookId)) {
+            return;
+        }
+        afterCommit(() -> {
+            // Several returns of the same title collapse into one pending fan-out
+            if (!fanOutsInFlight.add(bookId)) {
+                return;
+            }
+            try {
+                notificationTaskExecutor.execute(() -> fanOut(bookId, title));
+            } catch (RejectedExecutionException e) {
+                fanOutsInFlight.remove(bookId);
+                log.warn("Notification queue full, dropping availability fan-out for book {}", bookId);
+            }
+        });
+    }
+
+    public List<Notification> getUnreadNotifications(User user) {
+        return notificationRepository.findByUserIdAndReadAtIsNullOrderByCreatedAtDesc(user.getId());
+    }
+
+    @Transactional
+    public int markAllRead(User user) {
+        return notificationRepository.markAllRead(user.getId(), LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.rate-window-ms:3600000}")
+    public void purgeRateWindows() {
+        long now = System.currentTimeMillis();
+        rateWindows.values().removeIf(window -> now - window[0] >= rateWindowMs);
+    }
+
+    private void fanOut(Long bookId, String title) {
+        try {
+            Set<Long> watchers = watchersByBook.get(bookId);
+            if (watchers == null || watchers.isEmpty()) {
+                return;
+            }
+            List<Long> recipients = new ArrayList<>(watchers);
+            String message = "\"" + title + "\" from your wishlist is now available";
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+            int sent = 0;
+            for (int from = 0; from < recipients.size(); from += batchSize) {
+                List<Long> batch = recipients.subList(from, Math.min(from + batchSize, recipients.size()));
+                Integer written = tx.execute(status -> writeBatch(bookId, message, batch));
+                sent += written != null ? written : 0;
+            }
+            log.debug("Book {} available: notified {} of {} watchers", bookId, sent, recipients.size());
+        } catch (RuntimeException e) {
+            log.warn("Availability fan-out for book {} failed: {}", bookId, e.getMessage());
+        } finally {
+            fanOutsInFlight.remove(bookId);
+        }
+    }
+
+    private int writeBatch(Long bookId, String message, List<Long> userIds) {
+        Set<Long> alreadyNotified = new HashSet<>(
+                notificationRepository.findUnreadRecipients(bookId, Notification.Type.BOOK_AVAILABLE, userIds));
+
+        List<Notification> outbox = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            if (!alreadyNotified.contains(userId) && tryAcquire(userId)) {
+                outbox.add(new Notification(userId, bookId, Notification.Type.BOOK_AVAILABLE, message));
+            }
+        }
+        notificationRepository.saveAll(outbox);
+        return outbox.size();
+    }
+
+    private boolean tryAcquire(Long userId) {
+        long now = System.currentTimeMillis();
+        boolean[] allowed = {false};
+        rateWindows.compute(userId, (id, window) -> {
+            if (window == null || now - window[0] >= rateWindowMs) {
+                window = new long[]{now, 0};
+            }
+            if (window[1] < perUserLimit) {
+                window[1]++;
+                allowed[0] = true;
+            }
+            return window;
+        });
+        return allowed[0];
+    }
+
+    private void addWatcher(Long bookId, Long userId) {
+        watchersByBook.compute(bookId, (id, users) -> {
+            Set<Long> watchers = users != null ? users : ConcurrentHashMap.newKeySet();
+            watchers.add(userId);
+            return watchers;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
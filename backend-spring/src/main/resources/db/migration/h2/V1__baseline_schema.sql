@@ -0,0 +1,97 @@
+-- Baseline: the schema previously generated by Hibernate (ddl-auto), now owned by Flyway
+
+create sequence books_seq start with 1 increment by 50;
+create sequence borrow_records_seq start with 1 increment by 50;
+create sequence notifications_seq start with 1 increment by 50;
+create sequence users_seq start with 1 increment by 50;
+create sequence wishlists_seq start with 1 increment by 50;
+
+create table users (
+    id bigint not null,
+    name varchar(100) not null,
+    email varchar(100) not null,
+    password varchar(255) not null,
+    role varchar(255) not null check (role in ('USER','ADMIN')),
+    is_active boolean not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    primary key (id),
+    constraint uk_users_email unique (email)
+);
+
+create table user_refresh_tokens (
+    user_id bigint not null,
+    refresh_token varchar(500),
+    constraint fk_user_refresh_tokens_user foreign key (user_id) references users (id)
+);
+
+create table books (
+    id bigint not null,
+    title varchar(200) not null,
+    author varchar(100) not null,
+    isbn varchar(20),
+    genre varchar(50),
+    published_year integer,
+    description varchar(2000),
+    cover_image varchar(500),
+    total_copies integer not null,
+    available_copies integer not null,
+    shelf varchar(255),
+    section varchar(255),
+    is_active boolean not null,
+    status varchar(255),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    primary key (id),
+    constraint uk_books_isbn unique (isbn)
+);
+
+create table book_tags (
+    book_id bigint not null,
+    tag varchar(255),
+    constraint fk_book_tags_book foreign key (book_id) references books (id)
+);
+
+create table borrow_records (
+    id bigint not null,
+    user_id bigint not null,
+    book_id bigint not null,
+    borrowed_at timestamp(6) not null,
+    due_at timestamp(6) not null,
+    returned_at timestamp(6),
+    renewed_count integer not null,
+    status varchar(255) not null check (status in ('BORROWED','RETURNED','OVERDUE','RENEWED')),
+    fine_amount numeric(10,2) not null,
+    fine_paid boolean not null,
+    notes varchar(500),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    primary key (id),
+    constraint fk_borrow_records_user foreign key (user_id) references users (id),
+    constraint fk_borrow_records_book foreign key (book_id) references books (id)
+);
+
+create table wishlists (
+    id bigint not null,
+    user_id bigint not null,
+    book_id bigint not null,
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_wishlists_user_book unique (user_id, book_id),
+    constraint fk_wishlists_user foreign key (user_id) references users (id),
+    constraint fk_wishlists_book foreign key (book_id) references books (id)
+);
+
+create table notifications (
+    id bigint not null,
+    user_id bigint not null,
+    book_id bigint,
+    type varchar(30) not null check (type in ('BOOK_AVAILABLE')),
+    message varchar(500) not null,
+    read_at timestamp(6),
+    created_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_notifications_user_read on notifications (user_id, read_at);
+create index idx_notifications_book_read on notifications (book_id, read_at);
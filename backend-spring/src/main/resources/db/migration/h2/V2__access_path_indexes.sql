@@ -0,0 +1,18 @@
+-- Composite indexes for the access paths in BorrowRecordRepository and BookRepository
+
+-- History and per-status lists for one user, newest first; also covers countByUserAndStatusIn
+create index idx_borrow_records_user_status on borrow_records (user_id, status, borrowed_at);
+create index idx_borrow_records_user_borrowed on borrow_records (user_id, borrowed_at);
+-- Admin "recent borrows" and global counts by status
+create index idx_borrow_records_status_borrowed on borrow_records (status, borrowed_at);
+-- Active-borrow checks before a book is deleted, and popularity/co-borrow aggregation
+create index idx_borrow_records_book_status on borrow_records (book_id, status);
+-- Overdue sweeps
+create index idx_borrow_records_due_at on borrow_records (due_at);
+
+-- Catalog filters always include is_active = true
+-- The genre filter is upper(genre) = ? (BookService). MySQL's copy of this index keys on upper(genre);
+-- H2 has no expression indexes and does not match upper(genre) to a generated column, so here only the
+-- is_active prefix is used and genre is compared row by row
+create index idx_books_active_genre on books (is_active, genre);
+create index idx_books_active_year on books (is_active, published_year);
@@ -0,0 +1,41 @@
+-- Cold storage for closed borrow records plus the per-user and per-book counters they are rolled into.
+-- Rows keep their original borrow_records id; no foreign keys so moving a chunk stays cheap.
+
+create table borrow_records_archive (
+    id bigint not null,
+    user_id bigint not null,
+    book_id bigint not null,
+    borrowed_at timestamp(6) not null,
+    due_at timestamp(6) not null,
+    returned_at timestamp(6),
+    renewed_count integer not null,
+    status varchar(255) not null check (status in ('BORROWED','RETURNED','OVERDUE','RENEWED')),
+    fine_amount numeric(10,2) not null,
+    fine_paid boolean not null,
+    notes varchar(500),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    archived_at timestamp(6) not null,
+    primary key (id)
+);
+
+-- History pages for one user, newest first
+create index idx_borrow_records_archive_user_borrowed on borrow_records_archive (user_id, borrowed_at);
+
+create table user_borrow_summary (
+    user_id bigint not null,
+    archived_borrows bigint not null,
+    archived_fines numeric(12,2) not null,
+    updated_at timestamp(6) not null,
+    primary key (user_id)
+);
+
+create table book_borrow_summary (
+    book_id bigint not null,
+    archived_borrows bigint not null,
+    updated_at timestamp(6) not null,
+    primary key (book_id)
+);
+
+-- Finds archivable rows without touching open loans
+create index idx_borrow_records_status_returned on borrow_records (status, returned_at);
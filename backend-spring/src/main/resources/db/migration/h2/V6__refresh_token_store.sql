@@ -0,0 +1,25 @@
+-- Refresh tokens move out of the users' element collection into a store keyed by SHA-256 hash.
+-- Existing tokens are carried over (hashed, full refresh lifetime from now) so nobody is logged out.
+
+create table refresh_tokens (
+    token_hash varchar(64) not null,
+    user_id bigint not null,
+    expires_at timestamp(6) not null,
+    created_at timestamp(6) not null,
+    last_used_at timestamp(6) not null,
+    primary key (token_hash)
+);
+
+-- Per-user LRU cap and revoke-all
+create index idx_refresh_tokens_user_used on refresh_tokens (user_id, last_used_at);
+
+-- Batched expiry purge
+create index idx_refresh_tokens_expires on refresh_tokens (expires_at);
+
+insert into refresh_tokens (token_hash, user_id, expires_at, created_at, last_used_at)
+select h.token_hash, min(h.user_id), dateadd('DAY', 7, localtimestamp), localtimestamp, localtimestamp
+from (select lower(rawtohex(hash('SHA-256', refresh_token))) as token_hash, user_id
+      from user_refresh_tokens where refresh_token is not null) h
+group by h.token_hash;
+
+drop table user_refresh_tokens;
@@ -0,0 +1,13 @@
+-- Access tokens revoked before their expiry (logout), keyed by the token's jti claim.
+-- Rows are only needed until the token would have expired anyway and are purged after that.
+
+create table revoked_access_tokens (
+    jti varchar(36) not null,
+    user_id bigint not null,
+    expires_at timestamp(6) not null,
+    revoked_at timestamp(6) not null,
+    primary key (jti)
+);
+
+-- Filter rebuild (unexpired rows) and batched expiry purge
+create index idx_revoked_access_tokens_expires on revoked_access_tokens (expires_at);
@@ -0,0 +1,2 @@
+-- Catalog version stamp (see CatalogVersion): max(updated_at) is read from the index end
+create index idx_books_updated_at on books (updated_at);
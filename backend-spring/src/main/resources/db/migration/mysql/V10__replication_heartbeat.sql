@@ -0,0 +1,8 @@
+-- Replication lag heartbeat (see ReplicaLagMonitor): one row, written on the primary every tick and
+-- read back from the replica. Created for every deployment so enabling replica routing needs no DDL.
+
+create table replication_heartbeat (
+    id int not null,
+    beat_at bigint not null,
+    primary key (id)
+);
@@ -0,0 +1,103 @@
+-- Baseline: the schema previously generated by Hibernate (ddl-auto), now owned by Flyway.
+-- Databases created before Flyway are baselined at this version (spring.flyway.baseline-on-migrate).
+
+create table books_seq (next_val bigint) engine=InnoDB;
+insert into books_seq values (1);
+create table borrow_records_seq (next_val bigint) engine=InnoDB;
+insert into borrow_records_seq values (1);
+create table notifications_seq (next_val bigint) engine=InnoDB;
+insert into notifications_seq values (1);
+create table users_seq (next_val bigint) engine=InnoDB;
+insert into users_seq values (1);
+create table wishlists_seq (next_val bigint) engine=InnoDB;
+insert into wishlists_seq values (1);
+
+create table users (
+    id bigint not null,
+    name varchar(100) not null,
+    email varchar(100) not null,
+    password varchar(255) not null,
+    role enum ('USER','ADMIN') not null,
+    is_active bit not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_users_email unique (email)
+) engine=InnoDB;
+
+create table user_refresh_tokens (
+    user_id bigint not null,
+    refresh_token varchar(500),
+    constraint fk_user_refresh_tokens_user foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table books (
+    id bigint not null,
+    title varchar(200) not null,
+    author varchar(100) not null,
+    isbn varchar(20),
+    genre varchar(50),
+    published_year integer,
+    description varchar(2000),
+    cover_image varchar(500),
+    total_copies integer not null,
+    available_copies integer not null,
+    shelf varchar(255),
+    section varchar(255),
+    is_active bit not null,
+    status varchar(255),
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_books_isbn unique (isbn)
+) engine=InnoDB;
+
+create table book_tags (
+    book_id bigint not null,
+    tag varchar(255),
+    constraint fk_book_tags_book foreign key (book_id) references books (id)
+) engine=InnoDB;
+
+create table borrow_records (
+    id bigint not null,
+    user_id bigint not null,
+    book_id bigint not null,
+    borrowed_at datetime(6) not null,
+    due_at datetime(6) not null,
+    returned_at datetime(6),
+    renewed_count integer not null,
+    status enum ('BORROWED','RETURNED','OVERDUE','RENEWED') not null,
+    fine_amount decimal(10,2) not null,
+    fine_paid bit not null,
+    notes varchar(500),
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id),
+    constraint fk_borrow_records_user foreign key (user_id) references users (id),
+    constraint fk_borrow_records_book foreign key (book_id) references books (id)
+) engine=InnoDB;
+
+create table wishlists (
+    id bigint not null,
+    user_id bigint not null,
+    book_id bigint not null,
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_wishlists_user_book unique (user_id, book_id),
+    constraint fk_wishlists_user foreign key (user_id) references users (id),
+    constraint fk_wishlists_book foreign key (book_id) references books (id)
+) engine=InnoDB;
+
+create table notifications (
+    id bigint not null,
+    user_id bigint not null,
+    book_id bigint,
+    type enum ('BOOK_AVAILABLE') not null,
+    message varchar(500) not null,
+    read_at datetime(6),
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_notifications_user_read on notifications (user_id, read_at);
+create index idx_notifications_book_read on notifications (book_id, read_at);
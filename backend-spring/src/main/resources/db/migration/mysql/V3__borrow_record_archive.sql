@@ -0,0 +1,41 @@
+-- Cold storage for closed borrow records plus the per-user and per-book counters they are rolled into.
+-- Rows keep their original borrow_records id; no foreign keys so moving a chunk stays cheap.
+
+create table borrow_records_archive (
+    id bigint not null,
+    user_id bigint not null,
+    book_id bigint not null,
+    borrowed_at datetime(6) not null,
+    due_at datetime(6) not null,
+    returned_at datetime(6),
+    renewed_count integer not null,
+    status enum ('BORROWED','RETURNED','OVERDUE','RENEWED') not null,
+    fine_amount decimal(10,2) not null,
+    fine_paid bit not null,
+    notes varchar(500),
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    archived_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- History pages for one user, newest first
+create index idx_borrow_records_archive_user_borrowed on borrow_records_archive (user_id, borrowed_at);
+
+create table user_borrow_summary (
+    user_id bigint not null,
+    archived_borrows bigint not null,
+    archived_fines decimal(12,2) not null,
+    updated_at datetime(6) not null,
+    primary key (user_id)
+) engine=InnoDB;
+
+create table book_borrow_summary (
+    book_id bigint not null,
+    archived_borrows bigint not null,
+    updated_at datetime(6) not null,
+    primary key (book_id)
+) engine=InnoDB;
+
+-- Finds archivable rows without touching open loans
+create index idx_borrow_records_status_returned on borrow_records (status, returned_at);
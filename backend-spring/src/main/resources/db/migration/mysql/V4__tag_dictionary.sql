@@ -0,0 +1,13 @@
+-- Dictionary-encoded book tags: each distinct tag is stored once, and books keep a packed array of
+-- 4-byte tag ids in books.tag_ids. V5 (a Java migration) packs the existing book_tags rows and drops that table.
+
+create table tags (
+    id integer not null auto_increment,
+    name varchar(255) not null,
+    primary key (id),
+    constraint uk_tags_name unique (name)
+) engine=InnoDB;
+
+insert into tags (name) select distinct tag from book_tags where tag is not null order by tag;
+
+alter table books add column tag_ids varbinary(1024);
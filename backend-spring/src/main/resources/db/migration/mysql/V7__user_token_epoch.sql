@@ -0,0 +1,2 @@
+-- Per-user access token epoch for claims-only authentication; tokens carrying an older epoch are rejected
+alter table users add column token_epoch integer default 0 not null;
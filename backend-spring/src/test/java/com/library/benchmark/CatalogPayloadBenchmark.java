@@ -0,0 +1,115 @@
+package com.library.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.library.dto.ApiResponse;
+import com.library.dto.BookListData;
+import com.library.dto.BookSummary;
+import com.library.dto.PaginationResponse;
+import com.library.entity.Book;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes and ns per catalog page response (GET /api/books) with the ObjectMapper settings of application.yml:
+ * - the old ApiResponse path, full Book entities inside Map.of("books", ...)
+ * - BookListData of BookSummary cards through Jackson's reflective bean serializers
+ * - the same payload through the BookSummary view serializer
+ * Each case runs for warm-up rounds that are discarded, then measured rounds whose median is reported.
+ *
+ * Run with mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=CatalogPayloadBenchmark;
+ * -Dbench.page-size, -Dbench.iterations, -Dbench.warmup and -Dbench.rounds change the size.
+ */
+@Tag("benchmark")
+class CatalogPayloadBenchmark {
+
+    private static final int PAGE_SIZE = Integer.getInteger("bench.page-size", 12);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 100_000);
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 5);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 10);
+
+    // Keeps the JIT from discarding the work being measured
+    private long sink;
+
+    @Test
+    void bytesAndNanosPerResponse() throws Exception {
+        List<Book> books = page();
+
+        ApiResponse<Object> entities = ApiResponse.success("Books retrieved successfully");
+        entities.setData(Map.of("books", books));
+        entities.setPagination(new PaginationResponse(1, 3, 30, PAGE_SIZE));
+
+        ApiResponse<BookListData> views = ApiResponse.success("Books retrieved successfully");
+        views.setData(new BookListData(books.stream().map(BookSummary::of).toList()));
+        views.setPagination(new PaginationResponse(1, 3, 30, PAGE_SIZE));
+
+        ObjectMapper mapper = mapper().build();
+        ObjectMapper reflective = mapper().featuresToDisable(MapperFeature.USE_ANNOTATIONS).build();
+
+        int entityBytes = measure("old: entities in Map", mapper.writer(), entities);
+        int reflectiveBytes = measure("views, reflective serializers", reflective.writer(), views);
+        int viewBytes = measure("views, view serializers", mapper.writer(), views);
+
+        assertThat(viewBytes).isEqualTo(reflectiveBytes).isLessThan(entityBytes);
+        System.out.printf("[sink %d]%n", sink);
+    }
+
+    private int measure(String label, ObjectWriter writer, Object response) throws Exception {
+        int bytes = writer.writeValueAsBytes(response).length;
+        double[] nanos = new double[ROUNDS];
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long started = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += writer.writeValueAsBytes(response).length;
+            }
+            double perResponse = (double) (System.nanoTime() - started) / ITERATIONS;
+            if (round >= WARMUP) {
+                nanos[round - WARMUP] = perResponse;
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-32s %7d bytes %9.0f ns/response (%.0f-%.0f)%n",
+                label, bytes, nanos[ROUNDS / 2], nanos[0], nanos[ROUNDS - 1]);
+        return bytes;
+    }
+
+    // As configured under spring.jackson in application.yml
+    private static Jackson2ObjectMapperBuilder mapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static List<Book> page() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Book book = new Book("Title number " + i + " of the catalogue", "Author Name " + i, 5);
+            book.setId((long) i);
+            book.setIsbn("978013235088" + (i % 10));
+            book.setGenre("Programming");
+            book.setPublishedYear(2001);
+            book.setCoverImage("https://images-na.ssl-images-amazon.com/images/P/0132350884.01.L.jpg");
+            book.setDescription("x".repeat(800));
+            book.setTags(new LinkedHashSet<>(List.of("programming", "classic", "software")));
+            book.setIsActive(true);
+            book.setCreatedAt(now);
+            book.setUpdatedAt(now);
+            books.add(book);
+        }
+        return books;
+    }
+}
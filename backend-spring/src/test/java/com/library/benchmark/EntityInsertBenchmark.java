@@ -0,0 +1,125 @@
+package com.library.benchmark;
+
+import com.library.entity.Book;
+import com.library.entity.BorrowRecord;
+import com.library.entity.User;
+import com.library.repository.BookRepository;
+import com.library.repository.BorrowRecordRepository;
+import com.library.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Insert throughput of the entity id generators: saveAll of a batch of books (two tags each) in one
+ * transaction, then one borrow per book in another. Warm-up rounds are discarded and the median of the
+ * measured rounds is reported with the JDBC statements Hibernate prepared, which is what the id
+ * strategy changes: IDENTITY ids send one statement per row, pooled sequence ids let the inserts go
+ * out in batches of hibernate.jdbc.batch_size.
+ *
+ * Run with mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=EntityInsertBenchmark. For a before/after
+ * comparison run it on both commits; -Dbench.rows, -Dbench.warmup and -Dbench.rounds change the size.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "logging.level.com.library=INFO",
+        "catalog-snapshot.enabled=false"
+})
+class EntityInsertBenchmark {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 5000);
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 3);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 7);
+
+    // A fixed tag vocabulary, as in a real catalog, so the rounds measure book rows rather than new tags
+    private static final List<String> TAGS = List.of("fiction", "classic", "history", "science", "poetry",
+            "biography", "travel", "children", "mystery", "fantasy");
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void insertThroughput() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        User reader = userRepository.save(new User("Bench Reader", "bench-reader@example.com", "password123"));
+
+        double[] books = new double[ROUNDS];
+        double[] borrows = new double[ROUNDS];
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            int offset = round * ROWS;
+            statistics.clear();
+
+            long started = System.nanoTime();
+            List<Book> saved = transactionTemplate.execute(status -> {
+                List<Book> batch = new ArrayList<>(ROWS);
+                for (int i = 0; i < ROWS; i++) {
+                    Book book = new Book("Bench title " + (offset + i), "Bench author", 3);
+                    book.setIsbn(String.format("9%012d", offset + i));
+                    book.setTags(Set.of(TAGS.get(i % TAGS.size()), TAGS.get((i + 1) % TAGS.size())));
+                    batch.add(book);
+                }
+                return bookRepository.saveAll(batch);
+            });
+            long booksDone = System.nanoTime();
+            long bookStatements = statistics.getPrepareStatementCount();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                List<BorrowRecord> batch = new ArrayList<>(ROWS);
+                saved.forEach(book -> batch.add(new BorrowRecord(reader, book)));
+                borrowRecordRepository.saveAll(batch);
+            });
+            long borrowsDone = System.nanoTime();
+
+            double bookRate = ROWS / ((booksDone - started) / 1e9);
+            double borrowRate = ROWS / ((borrowsDone - booksDone) / 1e9);
+            System.out.printf("%s round %d: books %.0f rows/s (%d statements), borrows %.0f rows/s (%d statements)%n",
+                    round < WARMUP ? "warm-up" : "measured", round, bookRate, bookStatements,
+                    borrowRate, statistics.getPrepareStatementCount() - bookStatements);
+            if (round >= WARMUP) {
+                books[round - WARMUP] = bookRate;
+                borrows[round - WARMUP] = borrowRate;
+            }
+        }
+        System.out.printf("median of %d rounds of %d rows: books %.0f rows/s (%.0f-%.0f), borrows %.0f rows/s (%.0f-%.0f)%n",
+                ROUNDS, ROWS, median(books), min(books), max(books), median(borrows), min(borrows), max(borrows));
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static double min(double[] values) {
+        return Arrays.stream(values).min().orElse(0);
+    }
+
+    private static double max(double[] values) {
+        return Arrays.stream(values).max().orElse(0);
+    }
+}
@@ -0,0 +1,96 @@
+package com.library.benchmark;
+
+import com.library.entity.User;
+import com.library.security.JwtTokenProvider;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Single-thread access token verifications per second in JwtTokenProvider:
+ * - two String-key parses per request, as JwtAuthenticationFilter did before verifyAccessToken
+ *   (validateToken, then getEmailFromToken)
+ * - one verification with the precomputed key and shared parser, i.e. a verified-token cache miss
+ * - a verified-token cache hit
+ * Each case runs for warm-up rounds that are discarded, then measured rounds whose median is reported.
+ *
+ * Run with mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=JwtVerificationBenchmark;
+ * -Dbench.iterations, -Dbench.warmup and -Dbench.rounds change the size.
+ */
+@Tag("benchmark")
+class JwtVerificationBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 100_000);
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 5);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 10);
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+    private static final String REFRESH_SECRET = "myRefreshSecretKey123456789012345678901234567890";
+
+    // Keeps the JIT from discarding the work being measured
+    private long sink;
+
+    @Test
+    void verificationsPerSecond() {
+        JwtTokenProvider provider = provider();
+        String token = provider.generateAccessToken(user());
+        // What verifyAccessToken runs on a cache miss
+        JwtParser accessParser = (JwtParser) ReflectionTestUtils.getField(provider, "accessParser");
+
+        assertThat(provider.verifyAccessToken(token)).isNotNull();
+
+        double twoParses = measure("two String-key parses", token, t -> {
+            Jwts.parser().setSigningKey(SECRET).parseClaimsJws(t);
+            return Jwts.parser().setSigningKey(SECRET).parseClaimsJws(t).getBody().getSubject().length();
+        });
+        double oneParse = measure("one verification, cache miss", token,
+                t -> accessParser.parseClaimsJws(t).getBody().getSubject().length());
+        double cacheHit = measure("verified-token cache hit", token,
+                t -> provider.verifyAccessToken(t).getSubject().length());
+
+        System.out.printf("median verifications/s: two parses %.0f, one verification %.0f (%.1fx), cache hit %.0f (%.1fx) [sink %d]%n",
+                twoParses, oneParse, oneParse / twoParses, cacheHit, cacheHit / twoParses, sink);
+    }
+
+    private double measure(String label, String token, ToIntFunction<String> verification) {
+        double[] rates = new double[ROUNDS];
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long started = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += verification.applyAsInt(token);
+            }
+            double rate = ITERATIONS / ((System.nanoTime() - started) / 1e9);
+            if (round >= WARMUP) {
+                rates[round - WARMUP] = rate;
+            }
+        }
+        Arrays.sort(rates);
+        System.out.printf("%-30s %,12.0f verifications/s (%,.0f-%,.0f)%n", label, rates[ROUNDS / 2], rates[0], rates[ROUNDS - 1]);
+        return rates[ROUNDS / 2];
+    }
+
+    // Configured as in application.yml
+    private static JwtTokenProvider provider() {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtRefreshSecret", REFRESH_SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 900_000L);
+        ReflectionTestUtils.setField(provider, "jwtRefreshExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(provider, "verifiedCacheEntries", 10_000L);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    private static User user() {
+        User user = new User("Bench Reader", "bench-reader@example.com", "password123");
+        user.setId(1L);
+        return user;
+    }
+}
@@ -0,0 +1,191 @@
+package com.library.config;
+
+import com.library.entity.Book;
+import com.library.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing over two separate H2 databases, kept in step by H2ReplicationSimulator as in the replica
+ * profile. Each transaction asks its connection which database it is on. The nested class runs the
+ * replica profile itself, to check what replica reads leave in Hibernate's second-level cache.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MS = 300;
+
+    private final DriverManagerDataSource primary =
+            new DriverManagerDataSource("jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1", "sa", "");
+    private final DriverManagerDataSource replica =
+            new DriverManagerDataSource("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1", "sa", "");
+
+    private ReplicaLagMonitor monitor;
+    private H2ReplicationSimulator replication;
+    private DataSource routed;
+
+    @BeforeEach
+    void setUp() {
+        // What V10__replication_heartbeat creates on the primary
+        new JdbcTemplate(primary).execute(
+                "create table replication_heartbeat (id int not null, beat_at bigint not null, primary key (id))");
+        monitor = new ReplicaLagMonitor(primary, replica, MAX_LAG_MS);
+        replication = new H2ReplicationSimulator(primary, replica);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(monitor);
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.Route.PRIMARY, primary,
+                ReplicaRoutingDataSource.Route.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        routed = new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaWhileItKeepsUp() {
+        monitor.check();
+        replication.replicate();
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isTrue();
+        assertThat(databaseOf(true)).isEqualTo("ROUTING_REPLICA");
+        assertThat(databaseOf(false)).isEqualTo("ROUTING_PRIMARY");
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaLags() throws InterruptedException {
+        monitor.check();
+        replication.replicate();
+        monitor.check();
+        assertThat(databaseOf(true)).isEqualTo("ROUTING_REPLICA");
+
+        // Replication stops; the next heartbeat on the primary is then further ahead than the limit
+        Thread.sleep(MAX_LAG_MS + 100);
+        monitor.check();
+
+        assertThat(monitor.getLagMs()).isGreaterThan(MAX_LAG_MS);
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        assertThat(databaseOf(true)).isEqualTo("ROUTING_PRIMARY");
+
+        // Once it catches up again, reads go back to the replica
+        replication.replicate();
+        monitor.check();
+        assertThat(databaseOf(true)).isEqualTo("ROUTING_REPLICA");
+    }
+
+    @Test
+    void readsStayOnThePrimaryUntilTheReplicaHasAHeartbeat() {
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        assertThat(monitor.getLagMs()).isEqualTo(-1);
+        assertThat(databaseOf(true)).isEqualTo("ROUTING_PRIMARY");
+    }
+
+    /**
+     * Replication and the heartbeat are driven by the test; the scheduled runs are pushed out of the way.
+     * A cached row or query result read from a lagging replica would be served as fresh after the primary
+     * has moved on, so only primary reads may populate the cache.
+     */
+    @Nested
+    @SpringBootTest(properties = {
+            "spring.jpa.show-sql=false",
+            "logging.level.org.hibernate.SQL=INFO",
+            "logging.level.com.library=INFO",
+            "catalog-snapshot.enabled=false",
+            "replica.heartbeat-interval-ms=3600000",
+            "replica.simulated-replication.interval-ms=3600000",
+            "replica.max-lag-ms=60000",
+            // Databases of its own: in-memory H2 outlives a context, and the replica schema is cloned once
+            "spring.datasource.url=jdbc:h2:mem:cache_primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+            "replica.datasource.url=jdbc:h2:mem:cache_replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+    })
+    @ActiveProfiles("replica")
+    @DirtiesContext
+    class SecondLevelCache {
+
+        @Autowired
+        private ReplicaLagMonitor lagMonitor;
+
+        @Autowired
+        private H2ReplicationSimulator replicationSimulator;
+
+        @Autowired
+        private BookRepository bookRepository;
+
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @Test
+        void replicaReadsDoNotPopulateTheCache() {
+            lagMonitor.check();
+            replicationSimulator.replicate();
+            lagMonitor.check();
+            assertThat(lagMonitor.isReplicaUsable()).isTrue();
+
+            Long id = bookRepository.findAll().get(0).getId();
+            entityManagerFactory.getCache().evictAll();
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            assertThat(findActiveBook(id, true)).isEqualTo("CACHE_REPLICA");
+            assertThat(entityManagerFactory.getCache().contains(Book.class, id)).isFalse();
+            assertThat(statistics.getQueryCachePutCount()).isZero();
+            assertThat(statistics.getSecondLevelCachePutCount()).isZero();
+
+            // The same lookup on the primary fills both
+            assertThat(findActiveBook(id, false)).isEqualTo("CACHE_PRIMARY");
+            assertThat(entityManagerFactory.getCache().contains(Book.class, id)).isTrue();
+            assertThat(statistics.getQueryCachePutCount()).isPositive();
+        }
+
+        // Runs the cacheable findByIdAndIsActive query and returns the database the transaction was on
+        private String findActiveBook(Long id, boolean readOnly) {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.setReadOnly(readOnly);
+            return tx.execute(status -> {
+                assertThat(bookRepository.findByIdAndIsActive(id, true)).isPresent();
+                return (String) entityManager.createNativeQuery("SELECT DATABASE()").getSingleResult();
+            });
+        }
+    }
+
+    private String databaseOf(boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(routed));
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> new JdbcTemplate(routed).queryForObject("SELECT DATABASE()", String.class));
+    }
+}
@@ -0,0 +1,104 @@
+package com.library.controller;
+
+import com.library.dto.ApiResponse;
+import com.library.dto.AuthRequest;
+import com.library.entity.User;
+import com.library.security.JwtTokenProvider;
+import com.library.service.LoginService;
+import com.library.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthControllerLoginTest {
+
+    private final ThreadPoolTaskExecutor bcryptPool = pool("bcrypt-");
+    private final ThreadPoolTaskExecutor loginPool = pool("login-");
+
+    private final LoginService loginService = mock(LoginService.class);
+    private final UserService userService = mock(UserService.class);
+    private final JwtTokenProvider tokenProvider = mock(JwtTokenProvider.class);
+    private final AuthController controller = new AuthController();
+
+    AuthControllerLoginTest() {
+        ReflectionTestUtils.setField(controller, "loginService", loginService);
+        ReflectionTestUtils.setField(controller, "userService", userService);
+        ReflectionTestUtils.setField(controller, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(controller, "loginTaskExecutor", loginPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bcryptPool.shutdown();
+        loginPool.shutdown();
+    }
+
+    @Test
+    void tokensAreIssuedOffThePasswordHashingPool() throws Exception {
+        User user = new User("Reader", "reader@example.com", "hash");
+        when(loginService.authenticate("reader@example.com", "secret"))
+                .thenReturn(bcryptPool.submitCompletable(() -> user));
+
+        AtomicReference<String> signedOn = new AtomicReference<>();
+        AtomicReference<String> storedOn = new AtomicReference<>();
+        when(tokenProvider.generateAccessToken(any(User.class))).thenAnswer(invocation -> {
+            signedOn.set(Thread.currentThread().getName());
+            return "access";
+        });
+        when(tokenProvider.generateRefreshToken(anyString())).thenReturn("refresh");
+        doAnswer(invocation -> {
+            storedOn.set(Thread.currentThread().getName());
+            return null;
+        }).when(userService).addRefreshToken(any(User.class), anyString());
+
+        ResponseEntity<ApiResponse<Object>> response = controller.login(request("reader@example.com", "secret"))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getAccessToken()).isEqualTo("access");
+        assertThat(signedOn.get()).startsWith("login-");
+        assertThat(storedOn.get()).startsWith("login-");
+    }
+
+    @Test
+    void wrongPasswordIsStillUnauthorized() throws Exception {
+        when(loginService.authenticate("reader@example.com", "wrong"))
+                .thenReturn(CompletableFuture.failedFuture(new BadCredentialsException("Invalid password")));
+
+        ResponseEntity<ApiResponse<Object>> response = controller.login(request("reader@example.com", "wrong"))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(response.getBody().getMessage()).isEqualTo("Invalid password");
+    }
+
+    private static AuthRequest request(String email, String password) {
+        AuthRequest request = new AuthRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        return request;
+    }
+
+    private static ThreadPoolTaskExecutor pool(String prefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setThreadNamePrefix(prefix);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,71 @@
+package com.library.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Catalog pages of GET /api/books are cached under the genre filter (CatalogPageCache). A request whose
+ * raw ?genre= differs from the normalized one must neither be answered nor cached with a different filter.
+ * Each test starts on a fresh page cache and runs against the books seeded by DataInitializer.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.library=INFO",
+        "catalog-snapshot.enabled=false"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookListGenreFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void blankGenreIsTheUnfilteredListing() throws Exception {
+        int active = count("select count(*) from books where is_active = true");
+        assertThat(active).isPositive();
+
+        expectTotal("", active);
+        expectTotal("  ", active);
+        expectTotal(null, active);
+    }
+
+    @Test
+    void paddedGenreMatchesTheGenre() throws Exception {
+        int programming = count("select count(*) from books where is_active = true and upper(genre) = 'PROGRAMMING'");
+        assertThat(programming).isPositive();
+
+        expectTotal(" programming ", programming);
+        expectTotal("programming", programming);
+        expectTotal("Programming", programming);
+    }
+
+    private void expectTotal(String genre, int total) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/books");
+        if (genre != null) {
+            request.param("genre", genre);
+        }
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pagination.totalBooks").value(total));
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+}
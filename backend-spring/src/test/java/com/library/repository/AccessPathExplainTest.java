@@ -0,0 +1,219 @@
+package com.library.repository;
+
+import com.library.config.HibernateCacheConfig;
+import com.library.config.V5__Pack_book_tags;
+import com.library.dto.FieldSelection;
+import com.library.entity.Book;
+import com.library.entity.BorrowRecord;
+import com.library.entity.Notification;
+import com.library.entity.User;
+import com.library.service.BookService;
+import com.library.service.CatalogVersion;
+import com.library.service.RecommendationService;
+import com.library.service.TagDictionary;
+import com.library.service.WishlistNotificationService;
+import org.assertj.core.api.SoftAssertions;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs EXPLAIN on the SQL Hibernate generates for every keyed repository query, and for the filtered
+ * catalog listing, and fails when H2 plans a full table scan. A changed query or a dropped index (V1/V2
+ * and later migrations) then shows up here rather than in production latency. On H2 a genre filter only
+ * narrows by is_active (see V2__access_path_indexes); MySQL keys on upper(genre) as well.
+ *
+ * Queries that read a whole table by design are not checked: the CSV exports, the recommendation and
+ * wishlist index bootstraps, the import ISBN seed, global aggregates (total fines, borrow counts per
+ * book, most borrowed, the catalog stamp), substring search, and the admin user listings and counts.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.library.repository.AccessPathExplainTest$Recorder")
+@Import({HibernateCacheConfig.class, V5__Pack_book_tags.class, TagDictionary.class, CatalogVersion.class,
+        BookService.class})
+class AccessPathExplainTest {
+
+    private static final List<BorrowRecord.Status> ACTIVE = List.of(
+            BorrowRecord.Status.BORROWED, BorrowRecord.Status.OVERDUE, BorrowRecord.Status.RENEWED);
+
+    // Page 2 of an empty result, so Spring Data also runs the count query
+    private static final Pageable SECOND_PAGE = PageRequest.of(1, 10);
+
+    public static class Recorder implements StatementInspector {
+
+        static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (statements) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    @Autowired
+    private BorrowRecordArchiveRepository archiveRepository;
+
+    // The catalog listing is a Criteria query built in BookService rather than a repository method
+    @Autowired
+    private BookService bookService;
+
+    @MockBean
+    private RecommendationService recommendationService;
+
+    @MockBean
+    private WishlistNotificationService wishlistNotificationService;
+
+    private final SoftAssertions softly = new SoftAssertions();
+
+    private User user;
+    private Book book;
+
+    @BeforeEach
+    void seed() {
+        user = entityManager.persist(new User("Reader", "reader@example.com", "password"));
+        book = entityManager.persist(new Book("Title", "Author", 1));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void borrowRecordQueriesUseAnIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        check("findViewsByUser", () -> borrowRecordRepository.findViewsByUser(user, SECOND_PAGE));
+        check("findViewsByUserAndStatus", () -> borrowRecordRepository.findViewsByUserAndStatus(user, BorrowRecord.Status.RETURNED, SECOND_PAGE));
+        check("findViewsByUserAndStatusIn", () -> borrowRecordRepository.findViewsByUserAndStatusIn(user, ACTIVE));
+        check("findRecentViews", () -> borrowRecordRepository.findRecentViews(ACTIVE, PageRequest.of(0, 10)));
+        check("findByUserOrderByBorrowedAtDesc", () -> borrowRecordRepository.findByUserOrderByBorrowedAtDesc(user, SECOND_PAGE));
+        check("findByUserAndStatusOrderByBorrowedAtDesc", () -> borrowRecordRepository.findByUserAndStatusOrderByBorrowedAtDesc(user, BorrowRecord.Status.RETURNED, SECOND_PAGE));
+        check("findByUserAndStatusIn", () -> borrowRecordRepository.findByUserAndStatusIn(user, ACTIVE));
+        check("findByUserAndBookIdAndStatusIn", () -> borrowRecordRepository.findByUserAndBookIdAndStatusIn(user, book.getId(), ACTIVE));
+        check("countByUserAndStatusIn", () -> borrowRecordRepository.countByUserAndStatusIn(user, ACTIVE));
+        check("countByStatusIn", () -> borrowRecordRepository.countByStatusIn(ACTIVE));
+        check("findByStatusInOrderByBorrowedAtDesc", () -> borrowRecordRepository.findByStatusInOrderByBorrowedAtDesc(ACTIVE, SECOND_PAGE));
+        check("findUserFavoriteGenres", () -> borrowRecordRepository.findUserFavoriteGenres(user, PageRequest.of(0, 3)));
+        check("countByUser", () -> borrowRecordRepository.countByUser(user));
+        check("countByUserAndStatus", () -> borrowRecordRepository.countByUserAndStatus(user, BorrowRecord.Status.RETURNED));
+        check("countByStatus", () -> borrowRecordRepository.countByStatus(BorrowRecord.Status.OVERDUE));
+        check("getTotalFinesByUser", () -> borrowRecordRepository.getTotalFinesByUser(user));
+        check("findArchivableIds", () -> borrowRecordRepository.findArchivableIds(BorrowRecord.Status.RETURNED, now, PageRequest.of(0, 100)));
+        check("summarizeByUser", () -> borrowRecordRepository.summarizeByUser(List.of(1L, 2L)));
+        check("summarizeByBook", () -> borrowRecordRepository.summarizeByBook(List.of(1L, 2L)));
+        check("deleteByIdIn", () -> borrowRecordRepository.deleteByIdIn(List.of(1L, 2L)));
+        check("archive findViewsByUserId", () -> archiveRepository.findViewsByUserId(user.getId(), PageRequest.of(0, 10)));
+        softly.assertAll();
+    }
+
+    @Test
+    void bookQueriesUseAnIndex() {
+        check("findById", () -> bookRepository.findById(book.getId()));
+        check("findByIdAndIsActive", () -> bookRepository.findByIdAndIsActive(book.getId(), true));
+        check("findByIsActive", () -> bookRepository.findByIsActive(true, PageRequest.of(1, 10, Sort.by("title"))));
+        check("countActiveBooks", () -> bookRepository.countActiveBooks());
+        check("existsByIsbn", () -> bookRepository.existsByIsbn("9780000000000"));
+        check("existsByIsbnAndIdNot", () -> bookRepository.existsByIsbnAndIdNot("9780000000000", book.getId()));
+        softly.assertAll();
+    }
+
+    @Test
+    void catalogListingQueriesUseAnIndex() {
+        // GET /api/books filters, as BookController passes them; sorted by title like its default listing
+        Pageable page = PageRequest.of(1, 10, Sort.by("title"));
+        check("getBookSummaries genre", () -> bookService.getBookSummaries("Programming", null, FieldSelection.DEFAULT, page));
+        check("getBookSummaries publishedYear", () -> bookService.getBookSummaries(null, 2008, FieldSelection.DEFAULT, page));
+        check("getBookSummaries genre and publishedYear", () -> bookService.getBookSummaries("Programming", 2008, FieldSelection.DEFAULT, page));
+        softly.assertAll();
+    }
+
+    @Test
+    void userAndWishlistQueriesUseAnIndex() {
+        check("findByEmail", () -> userRepository.findByEmail("reader@example.com"));
+        check("findByEmailAndIsActive", () -> userRepository.findByEmailAndIsActive("reader@example.com", true));
+        check("existsByEmail", () -> userRepository.existsByEmail("reader@example.com"));
+        check("wishlist findByUserOrderByCreatedAtDesc", () -> wishlistRepository.findByUserOrderByCreatedAtDesc(user));
+        check("wishlist findViewsByUser", () -> wishlistRepository.findViewsByUser(user));
+        check("wishlist findByUserAndBookId", () -> wishlistRepository.findByUserAndBookId(user, book.getId()));
+        check("wishlist existsByUserAndBookId", () -> wishlistRepository.existsByUserAndBookId(user, book.getId()));
+        check("wishlist countByUser", () -> wishlistRepository.countByUser(user));
+        softly.assertAll();
+    }
+
+    @Test
+    void notificationAndTokenQueriesUseAnIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        check("findByUserIdAndReadAtIsNullOrderByCreatedAtDesc", () -> notificationRepository.findByUserIdAndReadAtIsNullOrderByCreatedAtDesc(user.getId()));
+        check("findUnreadRecipients", () -> notificationRepository.findUnreadRecipients(book.getId(), Notification.Type.BOOK_AVAILABLE, Set.of(user.getId())));
+        check("markAllRead", () -> notificationRepository.markAllRead(user.getId(), now));
+        check("findHashesByUserIdMostRecentFirst", () -> refreshTokenRepository.findHashesByUserIdMostRecentFirst(user.getId()));
+        check("findHashesByUserId", () -> refreshTokenRepository.findHashesByUserId(user.getId()));
+        check("findExpiredHashes", () -> refreshTokenRepository.findExpiredHashes(now, PageRequest.of(0, 500)));
+        check("deleteByTokenHashAndUserId", () -> refreshTokenRepository.deleteByTokenHashAndUserId("hash", user.getId()));
+        check("deleteByTokenHashIn", () -> refreshTokenRepository.deleteByTokenHashIn(Set.of("a", "b")));
+        check("findUnexpiredJtis", () -> revokedAccessTokenRepository.findUnexpiredJtis(now));
+        check("findExpiredJtis", () -> revokedAccessTokenRepository.findExpiredJtis(now, PageRequest.of(0, 500)));
+        check("deleteByJtiIn", () -> revokedAccessTokenRepository.deleteByJtiIn(Set.of("a", "b")));
+        softly.assertAll();
+    }
+
+    private void check(String query, Runnable call) {
+        synchronized (Recorder.statements) {
+            Recorder.statements.clear();
+        }
+        call.run();
+        entityManager.flush();
+
+        List<String> statements;
+        synchronized (Recorder.statements) {
+            statements = new ArrayList<>(Recorder.statements);
+        }
+        softly.assertThat(statements).as("SQL run by %s", query).isNotEmpty();
+        for (String sql : statements) {
+            String plan = jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                    (ResultSetExtractor<String>) resultSet -> resultSet.next() ? resultSet.getString(1) : "");
+            softly.assertThat(plan).as("plan of %s:%n%s", query, plan).doesNotContain("tableScan");
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.library.repository;
+
+import com.library.config.HibernateCacheConfig;
+import com.library.config.V5__Pack_book_tags;
+import com.library.entity.Book;
+import com.library.entity.BorrowRecord;
+import com.library.entity.User;
+import com.library.entity.Wishlist;
+import com.library.service.CatalogVersion;
+import com.library.service.TagDictionary;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The list views are constructor projections: a page costs the same number of statements whether it
+ * holds 5 rows or 50, with no per-row lazy loads of the book or user.
+ */
+@DataJpaTest
+@Import({HibernateCacheConfig.class, V5__Pack_book_tags.class, TagDictionary.class, CatalogVersion.class})
+class ListProjectionStatementCountTest {
+
+    private static final List<BorrowRecord.Status> ACTIVE = List.of(
+            BorrowRecord.Status.BORROWED, BorrowRecord.Status.OVERDUE, BorrowRecord.Status.RENEWED);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void historyPageIsSelectPlusCount(int pageSize) {
+        User reader = seed(pageSize);
+        assertStatements(2, pageSize, () -> borrowRecordRepository.findViewsByUser(reader, PageRequest.of(0, pageSize)).getContent());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void activeBorrowsAreOneStatement(int pageSize) {
+        User reader = seed(pageSize);
+        assertStatements(1, pageSize * 2, () -> borrowRecordRepository.findViewsByUserAndStatusIn(reader, ACTIVE));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void recentBorrowsAreOneStatement(int pageSize) {
+        seed(pageSize);
+        assertStatements(1, pageSize, () -> borrowRecordRepository.findRecentViews(ACTIVE, PageRequest.of(0, pageSize)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void wishlistIsOneStatement(int pageSize) {
+        User reader = seed(pageSize);
+        assertStatements(1, pageSize, () -> wishlistRepository.findViewsByUser(reader));
+    }
+
+    // Twice the page size in active borrows, so every page is full and the history page needs its count
+    private User seed(int pageSize) {
+        User reader = entityManager.persist(new User("Reader", "reader@example.com", "password"));
+        for (int i = 0; i < pageSize * 2; i++) {
+            Book book = entityManager.persist(new Book("Title " + i, "Author " + i, 3));
+            entityManager.persist(new BorrowRecord(reader, book));
+            if (i < pageSize) {
+                entityManager.persist(new Wishlist(reader, book));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return reader;
+    }
+
+    private void assertStatements(long expected, int rows, Supplier<List<?>> query) {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<?> result = query.get();
+
+        assertThat(result).hasSize(rows);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+    }
+}
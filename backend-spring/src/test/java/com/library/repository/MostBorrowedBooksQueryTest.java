@@ -0,0 +1,71 @@
+package com.library.repository;
+
+import com.library.config.HibernateCacheConfig;
+import com.library.config.V5__Pack_book_tags;
+import com.library.entity.Book;
+import com.library.entity.BookBorrowSummary;
+import com.library.entity.BorrowRecord;
+import com.library.entity.User;
+import com.library.service.CatalogVersion;
+import com.library.service.TagDictionary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@Import({HibernateCacheConfig.class, V5__Pack_book_tags.class, TagDictionary.class, CatalogVersion.class})
+class MostBorrowedBooksQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Test
+    void ranksHotAndArchivedBorrowsTogetherAndLimitsInTheQuery() {
+        User reader = entityManager.persist(new User("Reader", "reader@example.com", "password"));
+        Book hotOnly = book("Hot only");
+        Book archivedOnly = book("Archived only");
+        Book both = book("Both");
+        Book rare = book("Rare");
+        borrow(reader, hotOnly, 3);
+        archive(archivedOnly, 4);
+        borrow(reader, both, 1);
+        archive(both, 4);
+        borrow(reader, rare, 1);
+        entityManager.flush();
+
+        List<Object[]> top = borrowRecordRepository.findMostBorrowedBooks(PageRequest.of(0, 3));
+
+        assertThat(top).extracting(row -> row[1], row -> ((Number) row[3]).longValue())
+                .containsExactly(
+                        tuple("Both", 5L),
+                        tuple("Archived only", 4L),
+                        tuple("Hot only", 3L));
+    }
+
+    private Book book(String title) {
+        return entityManager.persist(new Book(title, "Author", 10));
+    }
+
+    private void borrow(User reader, Book book, int times) {
+        for (int i = 0; i < times; i++) {
+            entityManager.persist(new BorrowRecord(reader, book));
+        }
+    }
+
+    private void archive(Book book, long borrows) {
+        BookBorrowSummary summary = new BookBorrowSummary(book.getId());
+        summary.add(borrows);
+        entityManager.persist(summary);
+    }
+}
@@ -0,0 +1,74 @@
+package com.library.security;
+
+import com.library.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static final String PATH = "/api/books/1/borrow";
+
+    @Test
+    void aRequestRefusedPerUserKeepsItsPerIpToken() {
+        // One IP shared by two users; the per-IP burst is larger than one user's
+        RateLimiter limiter = limiter(limit(3), limit(1));
+
+        assertThat(limiter.check("POST", PATH, "10.0.0.1", 1L)).isZero();
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.check("POST", PATH, "10.0.0.1", 1L)).isPositive();
+        }
+
+        // Only the first request used a per-IP token
+        assertThat(limiter.check("POST", PATH, "10.0.0.1", 2L)).isZero();
+        assertThat(limiter.check("POST", PATH, "10.0.0.1", 3L)).isZero();
+        assertThat(limiter.check("POST", PATH, "10.0.0.1", 4L)).isPositive();
+    }
+
+    @Test
+    void aRequestRefusedPerIpKeepsItsPerUserToken() {
+        RateLimiter limiter = limiter(limit(1), limit(2));
+
+        assertThat(limiter.check("POST", PATH, "10.0.0.1", 1L)).isZero();
+        assertThat(limiter.check("POST", PATH, "10.0.0.1", 1L)).isPositive();
+
+        // The refused request above did not take user 1's second token
+        assertThat(limiter.check("POST", PATH, "10.0.0.2", 1L)).isZero();
+        assertThat(limiter.check("POST", PATH, "10.0.0.3", 1L)).isPositive();
+    }
+
+    @Test
+    void eachDimensionStillAppliesOnItsOwn() {
+        RateLimiter limiter = limiter(limit(1), limit(1));
+
+        assertThat(limiter.check("POST", PATH, "10.0.0.1", null)).isZero();
+        assertThat(limiter.check("POST", PATH, "10.0.0.1", null)).isPositive();
+        assertThat(limiter.check("POST", PATH, null, 1L)).isZero();
+        assertThat(limiter.check("POST", PATH, null, 1L)).isPositive();
+        assertThat(limiter.check("GET", PATH, "10.0.0.1", 1L)).isZero();
+    }
+
+    private static RateLimiter limiter(RateLimitProperties.Limit perIp, RateLimitProperties.Limit perUser) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName("circulation");
+        rule.setPattern("/api/books/{id}/{action:borrow|return|reserve}");
+        rule.setMethods(List.of("POST"));
+        rule.setPerIp(perIp);
+        rule.setPerUser(perUser);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(rule));
+        return new RateLimiter(properties, new SimpleMeterRegistry());
+    }
+
+    // No refill within the test, so only the burst counts
+    private static RateLimitProperties.Limit limit(int capacity) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefill(1);
+        limit.setPeriodSeconds(3600);
+        return limit;
+    }
+}
@@ -0,0 +1,65 @@
+package com.library.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.repository.BookRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookImportServiceTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final BookImportService service = new BookImportService();
+
+    @BeforeEach
+    void setUp() {
+        executor.initialize();
+        when(bookRepository.streamAllIsbns()).thenReturn(Stream.empty());
+        ReflectionTestUtils.setField(service, "bookRepository", bookRepository);
+        ReflectionTestUtils.setField(service, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "importTaskExecutor", executor);
+        ReflectionTestUtils.setField(service, "batchSize", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 1);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @Timeout(10)
+    void failsInsteadOfBlockingWhenTheWriterDies() {
+        // Not a RuntimeException, so the writer's per-row fallback does not catch it and the thread ends
+        when(bookRepository.saveAll(anyIterable())).thenThrow(new OutOfMemoryError("simulated"));
+        StringBuilder csv = new StringBuilder("title,author,totalCopies\n");
+        for (int i = 0; i < 20; i++) {
+            csv.append("Title ").append(i).append(",Author,1\n");
+        }
+
+        BookImportService.ImportJob job = service.importBooks(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), BookImportService.Format.CSV);
+
+        assertThat(job.getStatus()).isEqualTo(BookImportService.ImportJob.Status.FAILED);
+        assertThat(job.getErrors()).extracting(error -> error.get("message"))
+                .anySatisfy(message -> assertThat((String) message).contains("Writer failed: simulated"));
+    }
+}
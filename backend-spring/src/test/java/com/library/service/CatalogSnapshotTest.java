@@ -0,0 +1,187 @@
+package com.library.service;
+
+import com.library.config.H2ReplicationSimulator;
+import com.library.config.ReplicaLagMonitor;
+import com.library.entity.Book;
+import com.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.NestedTestConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Refreshes are driven by the test; the scheduled ones are pushed out of the way. Entries are compared
+ * by identity: a patch keeps the entries of unchanged books, a full reload builds new ones.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.library=INFO",
+        "catalog-snapshot.refresh-interval-ms=3600000",
+        "catalog-version.refresh-interval-ms=3600000",
+        "catalog-version.change-log.max-entries=3"
+})
+@DirtiesContext
+class CatalogSnapshotTest {
+
+    @Autowired
+    private CatalogSnapshot snapshot;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void catchUp() {
+        snapshot.refresh();
+        ids = snapshot.current().browse(null, null, CatalogSnapshot.SortKey.TITLE, false, 1, 100)
+                .entries().stream().map(entry -> entry.detail().id()).sorted().toList();
+        assertThat(ids).hasSizeGreaterThan(5);
+    }
+
+    @Test
+    void localCommitsArePatchedIn() {
+        CatalogSnapshot.Contents before = snapshot.current();
+        Long edited = ids.get(0);
+        Long deactivated = ids.get(1);
+        Long untouched = ids.get(2);
+
+        update(edited, book -> book.setTitle("Patched title"));
+        update(deactivated, book -> book.setIsActive(false));
+        snapshot.refresh();
+
+        CatalogSnapshot.Contents after = snapshot.current();
+        assertThat(after.version().etag()).isEqualTo(catalogVersion.catalog().etag());
+        assertThat(after.book(edited).detail().title()).isEqualTo("Patched title");
+        assertThat(after.book(deactivated)).isNull();
+        assertThat(after.size()).isEqualTo(before.size() - 1);
+        assertThat(after.book(untouched)).isSameAs(before.book(untouched));
+    }
+
+    @Test
+    void aWriteFromAnotherInstanceReloadsEverything() {
+        CatalogSnapshot.Contents before = snapshot.current();
+        Long edited = ids.get(3);
+        Long untouched = ids.get(4);
+
+        // Straight to the table, so no local commit is logged; the periodic stamp check then sees it
+        jdbcTemplate.update("UPDATE books SET title = ?, updated_at = ? WHERE id = ?",
+                "Edited elsewhere", LocalDateTime.now().plusDays(1), edited);
+        catalogVersion.refresh();
+        snapshot.refresh();
+
+        CatalogSnapshot.Contents after = snapshot.current();
+        assertThat(after.book(edited).detail().title()).isEqualTo("Edited elsewhere");
+        assertThat(after.book(untouched)).isNotSameAs(before.book(untouched));
+    }
+
+    @Test
+    void moreLocalCommitsThanTheLogHoldsReloadEverything() {
+        CatalogSnapshot.Contents before = snapshot.current();
+        Long untouched = ids.get(5);
+
+        for (int i = 0; i < 4; i++) {
+            String description = "Revision " + i;
+            update(ids.get(0), book -> book.setDescription(description));
+        }
+        snapshot.refresh();
+
+        CatalogSnapshot.Contents after = snapshot.current();
+        assertThat(after.book(ids.get(0)).detail().description()).isEqualTo("Revision 3");
+        assertThat(after.book(untouched)).isNotSameAs(before.book(untouched));
+    }
+
+    private void update(Long id, Consumer<Book> change) {
+        update(transactionTemplate, bookRepository, id, change);
+    }
+
+    private static void update(TransactionTemplate transactionTemplate, BookRepository bookRepository,
+                               Long id, Consumer<Book> change) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Book book = bookRepository.findById(id).orElseThrow();
+            change.accept(book);
+            bookRepository.save(book);
+        });
+    }
+
+    /**
+     * Replica profile, with replication and the heartbeat driven by the test. A commit that has not
+     * reached the replica yet must still be in the snapshot published under the catalog stamp that
+     * counts it.
+     */
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(properties = {
+            "spring.jpa.show-sql=false",
+            "logging.level.org.hibernate.SQL=INFO",
+            "logging.level.com.library=INFO",
+            "catalog-snapshot.refresh-interval-ms=3600000",
+            "catalog-version.refresh-interval-ms=3600000",
+            "replica.heartbeat-interval-ms=3600000",
+            "replica.simulated-replication.interval-ms=3600000",
+            "replica.max-lag-ms=60000",
+            // Databases of its own: in-memory H2 outlives a context, and the tests above move updated_at ahead
+            "spring.datasource.url=jdbc:h2:mem:snapshot_primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+            "replica.datasource.url=jdbc:h2:mem:snapshot_replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+    })
+    @ActiveProfiles("replica")
+    @DirtiesContext
+    class WithALaggingReplica {
+
+        @Autowired
+        private CatalogSnapshot replicaSnapshot;
+
+        @Autowired
+        private BookRepository replicaBookRepository;
+
+        @Autowired
+        private TransactionTemplate replicaTransactionTemplate;
+
+        @Autowired
+        private ReplicaLagMonitor lagMonitor;
+
+        @Autowired
+        private H2ReplicationSimulator replicationSimulator;
+
+        @Test
+        void localCommitsArePatchedInFromThePrimary() {
+            lagMonitor.check();
+            replicationSimulator.replicate();
+            lagMonitor.check();
+            assertThat(lagMonitor.isReplicaUsable()).isTrue();
+            replicaSnapshot.refresh();
+            Long edited = replicaSnapshot.current()
+                    .browse(null, null, CatalogSnapshot.SortKey.TITLE, false, 1, 1)
+                    .entries().get(0).detail().id();
+
+            // Replication is held back, so only the primary has the new title
+            update(replicaTransactionTemplate, replicaBookRepository, edited,
+                    book -> book.setTitle("Not replicated yet"));
+            replicaSnapshot.refresh();
+
+            assertThat(replicaSnapshot.current().book(edited).detail().title()).isEqualTo("Not replicated yet");
+        }
+    }
+}
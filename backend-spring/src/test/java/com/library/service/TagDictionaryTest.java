@@ -0,0 +1,80 @@
+package com.library.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TagDictionaryTest {
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:tag_dictionary;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    TagDictionaryTest() {
+        // As created by V4__tag_dictionary
+        jdbcTemplate.execute("create table tags (id integer generated by default as identity, name varchar(255) not null, "
+                + "primary key (id), constraint uk_tags_name unique (name))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void concurrentEncodersOfTheSameNewTagsAgreeOnTheirIds() throws Exception {
+        TagDictionary dictionary = new TagDictionary(dataSource);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            names.add("tag-" + i);
+        }
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<byte[]>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return dictionary.encode(names);
+            }));
+        }
+        start.countDown();
+
+        Set<String> encodings = new HashSet<>();
+        for (Future<byte[]> result : results) {
+            encodings.add(Arrays.toString(result.get(10, TimeUnit.SECONDS)));
+        }
+        pool.shutdown();
+
+        assertThat(encodings).hasSize(1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from tags", Integer.class)).isEqualTo(names.size());
+        assertThat(dictionary.decode(results.get(0).get())).containsExactlyElementsOf(names);
+    }
+
+    @Test
+    void unknownIdsAreLoadedFromTheTable() {
+        TagDictionary writer = new TagDictionary(dataSource);
+        byte[] packed = writer.encode(List.of("poetry", "travel"));
+
+        // A second instance has never seen these names
+        TagDictionary reader = new TagDictionary(dataSource);
+
+        assertThat(reader.decode(packed)).containsExactly("poetry", "travel");
+        assertThat(reader.size()).isEqualTo(2);
+    }
+}
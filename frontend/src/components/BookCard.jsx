@@ -12,7 +12,6 @@ const BookCard = ({ book }) => {
     coverImage,
     availableCopies,
     totalCopies,
-    description,
   } = book;
 
   const isAvailable = availableCopies > 0;
@@ -67,12 +66,6 @@ const BookCard = ({ book }) => {
           {isbn && (
             <p className="text-sm text-gray-500 mb-2">ISBN: {isbn}</p>
           )}
-
-          {description && (
-            <p className="text-sm text-gray-600 mb-4 line-clamp-3">
-              {description}
-            </p>
-          )}
         </div>
 
         {/* Availability Status */}